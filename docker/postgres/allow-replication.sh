@@ -0,0 +1,3 @@
+#!/bin/sh
+# Lets the read replica of docker-compose.replica.yaml connect for streaming replication
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
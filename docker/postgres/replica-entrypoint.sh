@@ -0,0 +1,10 @@
+#!/bin/sh
+# Clones the primary on first start, then runs as a hot standby streaming its changes
+set -e
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_basebackup -h postgres -U "$POSTGRES_USER" -D "$PGDATA" -R -X stream; do
+        echo "Waiting for the primary..."
+        sleep 2
+    done
+fi
+exec docker-entrypoint.sh postgres
@@ -0,0 +1,132 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The packaged application running as a child process on a free port, for the startup and smoke runs.
+ * Output is discarded; the process is stopped with SIGTERM, then killed after 30 seconds.
+ */
+final class ApplicationProcess implements AutoCloseable {
+
+    private final Process process;
+    private final long startNanos;
+    private final String baseUrl;
+
+    private ApplicationProcess(Process process, long startNanos, int port) {
+        this.process = process;
+        this.startNanos = startNanos;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    /**
+     * Command running the uber jar, or a jar extracted for CDS, from its own directory,
+     * so {@code -XX:SharedArchiveFile} sees the same class path as the training run
+     */
+    static ProcessBuilder jar(List<String> jvmArgs, List<String> modeArgs, Path jar) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(modeArgs);
+        command.add("-jar");
+        command.add(jar.getFileName().toString());
+        return new ProcessBuilder(command).directory(jar.toAbsolutePath().getParent().toFile());
+    }
+
+    /**
+     * Command running the native executable; it takes the same {@code -D} options as the JVM
+     */
+    static ProcessBuilder nativeImage(List<String> jvmArgs, Path executable) {
+        if (!Files.isExecutable(executable)) {
+            throw new IllegalStateException("No native executable at " + executable + "; build with -Pnative first");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(executable.toAbsolutePath().toString());
+        command.addAll(jvmArgs.stream().filter(arg -> arg.startsWith("-D")).toList());
+        return new ProcessBuilder(command);
+    }
+
+    static ApplicationProcess start(ProcessBuilder command) throws IOException {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command.command());
+        withPort.add("--server.port=" + port);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .directory(command.directory())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        return new ApplicationProcess(process, start, port);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Polls a path until it answers 200
+     *
+     * @return Milliseconds from the launch of the process to the first 200
+     */
+    long awaitOk(String path, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .build();
+        long deadline = startNanos + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No 200 from " + path + " within " + timeout);
+    }
+
+    /**
+     * @return Resident set size of the process in MiB, from /proc (Linux only), or -1 if unavailable
+     */
+    long rssMib() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not on Linux
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(new User(id, "user" + id, "user" + id + "@example.com", "password" + id, 0L));
+        }
+        return users;
+    }
+
+    static List<UserView> views(int count) {
+        List<UserView> views = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            views.add(new UserView(id, "user" + id, "user" + id + "@example.com", 0L));
+        }
+        return views;
+    }
+
+    /**
+     * ObjectMapper configured like Spring Boot's default one.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setServerName("api.example.com");
+        request.setServerPort(443);
+        request.setScheme("https");
+        return request;
+    }
+}
@@ -0,0 +1,106 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserModelAssembler;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.http.LinkBuilder;
+import com.fabiornt.rest_template.http.PagedApiResponseCollection;
+import com.fabiornt.rest_template.http.UserJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares Jackson's bean serialization of user responses with the streaming
+ * {@link UserJsonHttpMessageConverter}. Both write into the same reused buffer,
+ * so {@code gc.alloc.rate.norm} only counts what the serializers allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE = 3;
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private UserJsonHttpMessageConverter converter;
+    private ByteArrayOutputStream buffer;
+
+    private PagedApiResponseCollection<UserModel> pagedResponse;
+    private ApiResponse<UserModel> singleResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkData.objectMapper();
+        converter = new UserJsonHttpMessageConverter(objectMapper);
+        buffer = new ByteArrayOutputStream(1024 * 1024);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(BenchmarkData.request()));
+        List<UserView> users = BenchmarkData.views(pageSize);
+        UserModelAssembler assembler = new UserModelAssembler();
+        List<UserModel> models = new ArrayList<>(users.size());
+        for (UserView user : users) {
+            models.add(assembler.toModel(user));
+        }
+        PageImpl<UserView> page = new PageImpl<>(users, PageRequest.of(PAGE, pageSize), 100L * pageSize);
+        pagedResponse = PagedApiResponseCollection.fromPage(page, models,
+                LinkBuilder.forPaginatedUsers(PAGE, pageSize, null, page), HttpStatus.OK);
+        singleResponse = ApiResponse.<UserModel>builder().data(models.get(0)).status(HttpStatus.OK).build();
+    }
+
+    @Benchmark
+    public int jacksonPaged() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, pagedResponse);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int fastPathPaged() throws IOException {
+        buffer.reset();
+        converter.writeJson(pagedResponse, buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int jacksonSingle() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, singleResponse);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int fastPathSingle() throws IOException {
+        buffer.reset();
+        converter.writeJson(singleResponse, buffer);
+        return buffer.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.fabiornt.rest_template.benchmark;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fabiornt.rest_template.controller.UserController;
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserModelAssembler;
+import com.fabiornt.rest_template.http.LinkBuilder;
+
+/**
+ * Compares building the links of a users page from precomputed templates ({@link LinkBuilder})
+ * with the previous {@code linkTo(methodOn(...))} approach.
+ * Every invocation simulates a new request, so per-request caching is measured fairly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkBuilderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<User> users;
+    private Page<User> page;
+    private UserModelAssembler assembler;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkData.users(pageSize);
+        page = new PageImpl<>(users, PageRequest.of(3, pageSize), 100L * pageSize);
+        assembler = new UserModelAssembler();
+    }
+
+    @Benchmark
+    public Object templates() {
+        newRequest();
+        List<UserModel> models = new ArrayList<>(users.size());
+        for (User user : users) {
+            models.add(assembler.toModel(user));
+        }
+        return new Object[] { models, LinkBuilder.forPaginatedUsers(3, pageSize, null, page) };
+    }
+
+    @Benchmark
+    public Object methodOnProxies() {
+        newRequest();
+        List<UserModel> models = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserModel model = UserModel.fromEntity(user);
+            model.add(linkTo(methodOn(UserController.class).getUserById(user.getId(), null, null)).withSelfRel());
+            model.add(linkTo(methodOn(UserController.class).getAllUsers(0, 10, null, null, null, null, "application/json", null)).withRel("users"));
+            models.add(model);
+        }
+        return new Object[] { models, methodOnPaginatedLinks(3, pageSize, page) };
+    }
+
+    private static Link[] methodOnPaginatedLinks(int page, int size, Page<?> pageData) {
+        return new Link[] {
+            linkTo(methodOn(UserController.class).getAllUsers(page, size, null, null, null, null, null, null)).withSelfRel(),
+            linkTo(methodOn(UserController.class).getAllUsers(0, size, null, null, null, null, null, null)).withRel("first"),
+            linkTo(methodOn(UserController.class).getAllUsers(page - 1, size, null, null, null, null, null, null)).withRel("prev"),
+            linkTo(methodOn(UserController.class).getAllUsers(page + 1, size, null, null, null, null, null, null)).withRel("next"),
+            linkTo(methodOn(UserController.class).getAllUsers(pageData.getTotalPages() - 1, size, null, null, null, null, null, null)).withRel("last"),
+            linkTo(methodOn(UserController.class).createUser(null)).withRel("create")
+        };
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(BenchmarkData.request()));
+    }
+}
@@ -0,0 +1,165 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Smoke test of the native executable: calls every {@code UserController} endpoint once, in each response
+ * format, and checks the status codes. Native images fail at runtime, not at build time, when a reflective
+ * access or resource has no hint, so this is the check to run after changing {@code NativeHintsConfig}
+ * or the response types. It ends with the startup time and the resident set size after the calls.
+ *
+ * <p>By default it runs {@code target/rest-template} ({@code -Pnative}); with {@code jar=...} it runs the
+ * JVM build instead, for comparison. The database is a Testcontainers container, or an existing one given
+ * with {@code jdbcUrl}/{@code username}/{@code password}. Exits with status 1 if any call fails.
+ */
+public class NativeSmokeCheck {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final List<String> failures = new ArrayList<>();
+
+    private NativeSmokeCheck(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+
+        PostgreSQLContainer<?> container = null;
+        String jdbcUrl = options.get("jdbcUrl");
+        String username = options.getOrDefault("username", "benchmark");
+        String password = options.getOrDefault("password", "benchmark");
+        if (jdbcUrl == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("benchmark")
+                    .withUsername(username)
+                    .withPassword(password);
+            container.start();
+            jdbcUrl = container.getJdbcUrl();
+        }
+
+        List<String> properties = List.of(
+                "-Dspring.profiles.active=prod",
+                "-Dspring.datasource.url=" + jdbcUrl,
+                "-Dspring.datasource.username=" + username,
+                "-Dspring.datasource.password=" + password);
+        ProcessBuilder command = options.containsKey("jar")
+                ? ApplicationProcess.jar(properties, List.of(), Path.of(options.get("jar")))
+                : ApplicationProcess.nativeImage(properties, Path.of(options.getOrDefault("native", "target/rest-template")));
+
+        List<String> failures;
+        try (ApplicationProcess application = ApplicationProcess.start(command)) {
+            long startup = application.awaitOk("/api/users?size=1&count=none", timeout);
+            NativeSmokeCheck check = new NativeSmokeCheck(application.baseUrl());
+            check.run(Long.toString(System.currentTimeMillis()));
+            failures = check.failures;
+            System.out.printf("%nstartup: %d ms, RSS after the calls: %d MiB%n", startup, application.rssMib());
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.printf("%d call(s) failed:%n", failures.size());
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("All calls succeeded");
+    }
+
+    private void run(String suffix) throws Exception {
+        String email = "smoke-" + suffix + "@example.com";
+
+        HttpResponse<String> created = send("POST", "/api/users", "application/json",
+                "{\"username\":\"smoke\",\"email\":\"" + email + "\",\"password\":\"smoke-password\"}", Map.of(), 201);
+        Matcher matcher = ID.matcher(created.body());
+        if (!matcher.find()) {
+            failures.add("POST /api/users: no id in " + created.body());
+            return;
+        }
+        String id = matcher.group(1);
+        String user = "/api/users/" + id;
+
+        String eTag = send("GET", user, null, null, Map.of(), 200).headers().firstValue("ETag").orElse("");
+        send("GET", user, null, null, Map.of("If-None-Match", eTag), 304);
+        eTag = send("PUT", user, "application/json",
+                "{\"username\":\"smoke-put\",\"email\":\"" + email + "\",\"password\":\"smoke-password-2\"}",
+                Map.of("If-Match", eTag), 200).headers().firstValue("ETag").orElse("");
+        send("PATCH", user, "application/json", "{\"username\":\"smoke-patch\"}", Map.of("If-Match", eTag), 200);
+        send("PATCH", user, "application/json", "{\"username\":\"smoke-stale\"}", Map.of("If-Match", eTag), 412);
+
+        for (String accept : List.of("application/json", "text/csv", "application/cbor", "application/x-jackson-smile")) {
+            send("GET", "/api/users?size=5", null, null, Map.of("Accept", accept), 200);
+        }
+        send("GET", "/api/users?size=5&count=estimate", null, null, Map.of(), 200);
+        send("GET", "/api/users?size=5&after=", null, null, Map.of(), 200);
+        send("GET", "/api/users?size=5&username=smoke&emailDomain=example.com&sort=username,desc", null, null, Map.of(), 200);
+        send("GET", "/api/users?sort=password", null, null, Map.of(), 400);
+        send("GET", "/api/users/export.csv", null, null, Map.of(), 200);
+
+        send("POST", "/api/users/batch", "application/json", "[{\"username\":\"smoke-b1\",\"email\":\"b1-" + email
+                + "\",\"password\":\"smoke-password\"},{\"username\":\"x\"}]", Map.of(), 200);
+        send("PUT", "/api/users/batch", "application/json", "[{\"id\":" + id + ",\"username\":\"smoke-batch\",\"email\":\""
+                + email + "\",\"password\":\"smoke-password-3\"}]", Map.of(), 200);
+        send("POST", "/api/users/import", "application/x-ndjson", "{\"username\":\"smoke-n1\",\"email\":\"n1-" + email
+                + "\",\"password\":\"smoke-password\"}\nnot json\n", Map.of(), 200);
+        // The unterminated quote is rejected with a message from opencsv's resource bundle
+        send("POST", "/api/users/import", "text/csv", "username,email,password\nsmoke-c1,c1-" + email
+                + ",smoke-password\n\"unterminated,x,y\n", Map.of(), 200);
+
+        send("DELETE", user, null, null, Map.of(), 204);
+        send("GET", user, null, null, Map.of(), 404);
+        send("DELETE", "/api/users/batch", "application/json", "[" + id + "]", Map.of(), 200);
+
+        send("GET", "/api/users/changes?since=0&limit=5&wait=0", null, null, Map.of(), 200);
+        send("GET", "/api/users/changes?wait=1", null, null, Map.of(), 200);
+    }
+
+    private HttpResponse<String> send(String method, String path, String contentType, String body,
+                                      Map<String, String> headers, int expectedStatus) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        headers.forEach(request::header);
+
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        String call = method + " " + path + " " + headers.getOrDefault("Accept", "");
+        if (response.statusCode() == expectedStatus) {
+            System.out.printf("ok    %d %s%n", response.statusCode(), call);
+        } else {
+            System.out.printf("FAIL  %d %s (expected %d)%n", response.statusCode(), call, expectedStatus);
+            failures.add(call + ": " + response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
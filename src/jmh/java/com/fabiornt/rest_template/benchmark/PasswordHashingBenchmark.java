@@ -0,0 +1,67 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fabiornt.rest_template.service.PasswordHasher;
+
+/**
+ * Signup throughput bound by password hashing, for each algorithm and cost.
+ * Several client threads share one {@link PasswordHasher}, as concurrent signups share the hashing pool,
+ * so the result is the number of signups per second the pool sustains with {@code hashing-threads} threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    /**
+     * Algorithm and cost: BCrypt log rounds or PBKDF2 iterations.
+     */
+    @Param({"bcrypt:8", "bcrypt:10", "bcrypt:12", "pbkdf2:100000", "pbkdf2:310000", "pbkdf2:600000"})
+    private String hashing;
+
+    /**
+     * Hashing threads; 0 is half the available processors, the default.
+     */
+    @Param({"0"})
+    private int hashingThreads;
+
+    private PasswordHasher hasher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = hashing.split(":");
+        int cost = Integer.parseInt(parts[1]);
+        boolean bcrypt = parts[0].equals("bcrypt");
+        hasher = new PasswordHasher(parts[0], bcrypt ? cost : 10, bcrypt ? 310000 : cost, hashingThreads, 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    public String signup() {
+        return hasher.hash("correct horse battery staple");
+    }
+}
@@ -0,0 +1,126 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserModelAssembler;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.http.LinkBuilder;
+import com.fabiornt.rest_template.http.PagedApiResponseCollection;
+import com.fabiornt.rest_template.http.UserJsonHttpMessageConverter;
+import com.fabiornt.rest_template.util.CsvConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Encoding cost and payload size of a page of users in each representation the API
+ * serves ({@code json}, {@code cbor}, {@code smile}, {@code csv}), with and without gzip.
+ * Payload sizes are printed when a trial ends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    private static final int PAGE = 3;
+
+    @Param({"json", "cbor", "smile", "csv"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private UserJsonHttpMessageConverter jsonConverter;
+    private ObjectMapper binaryMapper;
+    private ByteArrayOutputStream buffer;
+
+    private List<UserModel> models;
+    private PagedApiResponseCollection<UserModel> pagedResponse;
+
+    @Setup
+    public void setUp() {
+        jsonConverter = new UserJsonHttpMessageConverter(BenchmarkData.objectMapper());
+        if ("cbor".equals(format)) {
+            binaryMapper = binaryMapper().factory(new CBORFactory()).build();
+        } else if ("smile".equals(format)) {
+            binaryMapper = binaryMapper().factory(new SmileFactory()).build();
+        }
+        buffer = new ByteArrayOutputStream(1024 * 1024);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(BenchmarkData.request()));
+        List<UserView> users = BenchmarkData.views(pageSize);
+        UserModelAssembler assembler = new UserModelAssembler();
+        models = new ArrayList<>(users.size());
+        for (UserView user : users) {
+            models.add(assembler.toModel(user));
+        }
+        PageImpl<UserView> page = new PageImpl<>(users, PageRequest.of(PAGE, pageSize), 100L * pageSize);
+        pagedResponse = PagedApiResponseCollection.fromPage(page, models,
+                LinkBuilder.forPaginatedUsers(PAGE, pageSize, null, page), HttpStatus.OK);
+    }
+
+    @TearDown
+    public void printPayloadSize() throws IOException {
+        System.out.printf("%n%s gzip=%s pageSize=%d: %d bytes%n", format, gzip, pageSize, encode());
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        buffer.reset();
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192)) {
+                write(out);
+            }
+        } else {
+            write(buffer);
+        }
+        return buffer.size();
+    }
+
+    private void write(OutputStream out) throws IOException {
+        switch (format) {
+            case "json" -> jsonConverter.writeJson(pagedResponse, out);
+            case "csv" -> out.write(CsvConverter.toCsv(models).getBytes(StandardCharsets.UTF_8));
+            default -> binaryMapper.writeValue(out, pagedResponse);
+        }
+    }
+
+    private static Jackson2ObjectMapperBuilder binaryMapper() {
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+}
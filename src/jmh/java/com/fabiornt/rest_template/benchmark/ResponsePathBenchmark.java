@@ -0,0 +1,121 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserModelAssembler;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.http.LinkBuilder;
+import com.fabiornt.rest_template.http.PagedApiResponseCollection;
+import com.fabiornt.rest_template.util.CsvConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Baseline for each step of building a {@code GET /api/users} response:
+ * model assembly, collection links, the paged envelope, CSV conversion and JSON serialization.
+ * Run with {@code -prof gc} (the default {@code jmh.args}) to get the allocation rate next to ops/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponsePathBenchmark {
+
+    private static final int PAGE = 3;
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<UserView> users;
+    private Page<UserView> page;
+    private UserModelAssembler assembler;
+    private ObjectMapper objectMapper;
+
+    private List<UserModel> models;
+    private Link[] links;
+    private PagedApiResponseCollection<UserModel> pagedResponse;
+    private ApiResponse<UserModel> singleResponse;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkData.views(pageSize);
+        page = new PageImpl<>(users, PageRequest.of(PAGE, pageSize), 100L * pageSize);
+        assembler = new UserModelAssembler();
+        objectMapper = BenchmarkData.objectMapper();
+
+        newRequest();
+        models = assembleModels();
+        links = LinkBuilder.forPaginatedUsers(PAGE, pageSize, null, page);
+        pagedResponse = PagedApiResponseCollection.fromPage(page, models, links, HttpStatus.OK);
+        singleResponse = ApiResponse.<UserModel>builder().data(models.get(0)).status(HttpStatus.OK).build();
+    }
+
+    @Benchmark
+    public List<UserModel> userModelAssembler() {
+        newRequest();
+        return assembleModels();
+    }
+
+    @Benchmark
+    public Link[] paginatedLinks() {
+        newRequest();
+        return LinkBuilder.forPaginatedUsers(PAGE, pageSize, null, page);
+    }
+
+    @Benchmark
+    public PagedApiResponseCollection<UserModel> pagedEnvelope() {
+        return PagedApiResponseCollection.fromPage(page, models, links, HttpStatus.OK);
+    }
+
+    @Benchmark
+    public String csv() {
+        return CsvConverter.toCsv(models);
+    }
+
+    @Benchmark
+    public byte[] serializePagedResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagedResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeSingleResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(singleResponse);
+    }
+
+    private List<UserModel> assembleModels() {
+        List<UserModel> result = new ArrayList<>(users.size());
+        for (UserView user : users) {
+            result.add(assembler.toModel(user));
+        }
+        return result;
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(BenchmarkData.request()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Measures cold start: the time from launching the packaged application to its first successful
+ * {@code GET /api/users/{id}}, which includes process startup, context refresh, Liquibase, the web server
+ * and the first request through Hibernate and the connection pool. The resident set size right after
+ * that first request is reported too.
+ *
+ * <p>The application runs as a separate process with the {@code prod} profile against PostgreSQL (a Testcontainers
+ * container, or an existing database given with {@code jdbcUrl=...}). A first, unmeasured start applies the
+ * migrations and creates the user that is read. Then each mode is started {@code runs} times and the
+ * min/median/max times are printed:
+ * <ul>
+ *   <li>{@code jar}: {@code java -jar target/<finalName>.jar}</li>
+ *   <li>{@code cds}: the jar extracted to {@code target/cds} with its class data sharing archive ({@code -Pcds})</li>
+ *   <li>{@code native}: the GraalVM native executable {@code target/rest-template} ({@code -Pnative})</li>
+ * </ul>
+ * With {@code aot=true} the JVM modes run with {@code -Dspring.aot.enabled=true}; the jar must then be built with {@code -Paot}.
+ *
+ * <p>Arguments are {@code key=value} pairs: {@code runs} (default 5), {@code modes} (default {@code jar,cds}),
+ * {@code aot} (false), {@code jvmArgs} (extra JVM options, space separated), {@code jar} (default
+ * {@code target/rest-template-0.0.1-SNAPSHOT.jar}), {@code native} (default {@code target/rest-template}),
+ * {@code timeout} in seconds (120), and {@code jdbcUrl}/{@code username}/{@code password}.
+ */
+public class StartupTimeBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+        Path jar = Path.of(options.getOrDefault("jar", "target/rest-template-0.0.1-SNAPSHOT.jar"));
+        Path cdsDirectory = jar.resolveSibling("cds");
+
+        PostgreSQLContainer<?> container = null;
+        String jdbcUrl = options.get("jdbcUrl");
+        String username = options.getOrDefault("username", "benchmark");
+        String password = options.getOrDefault("password", "benchmark");
+        if (jdbcUrl == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("benchmark")
+                    .withUsername(username)
+                    .withPassword(password);
+            container.start();
+            jdbcUrl = container.getJdbcUrl();
+        }
+
+        try {
+            List<String> jvmArgs = new ArrayList<>();
+            jvmArgs.add("-Dspring.profiles.active=prod");
+            jvmArgs.add("-Dspring.aot.enabled=" + options.getOrDefault("aot", "false"));
+            jvmArgs.add("-Dspring.datasource.url=" + jdbcUrl);
+            jvmArgs.add("-Dspring.datasource.username=" + username);
+            jvmArgs.add("-Dspring.datasource.password=" + password);
+            if (options.containsKey("jvmArgs")) {
+                jvmArgs.addAll(Arrays.asList(options.get("jvmArgs").trim().split("\\s+")));
+            }
+
+            long userId = prepare(ApplicationProcess.jar(jvmArgs, List.of(), jar), timeout);
+
+            List<String> report = new ArrayList<>();
+            for (String mode : options.getOrDefault("modes", "jar,cds").split(",")) {
+                ProcessBuilder command = switch (mode) {
+                    case "jar" -> ApplicationProcess.jar(jvmArgs, List.of(), jar);
+                    case "cds" -> {
+                        Path archive = cdsDirectory.resolve("application.jsa");
+                        if (!Files.exists(archive)) {
+                            throw new IllegalStateException("No CDS archive at " + archive + "; build with -Pcds first");
+                        }
+                        yield ApplicationProcess.jar(jvmArgs, List.of("-XX:SharedArchiveFile=" + archive.toAbsolutePath(), "-Xlog:cds=off"),
+                                cdsDirectory.resolve(jar.getFileName()));
+                    }
+                    case "native" -> ApplicationProcess.nativeImage(jvmArgs, Path.of(options.getOrDefault("native", "target/rest-template")));
+                    default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+                };
+
+                long[] times = new long[runs];
+                long[] rss = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    try (ApplicationProcess application = ApplicationProcess.start(command)) {
+                        times[run] = application.awaitOk("/api/users/" + userId, timeout);
+                        rss[run] = application.rssMib();
+                    }
+                    System.out.printf("%s run %d: %d ms, %d MiB%n", mode, run + 1, times[run], rss[run]);
+                }
+                Arrays.sort(times);
+                Arrays.sort(rss);
+                report.add(String.format("%-6s %10d %10d %10d %10d", mode, times[0], times[runs / 2], times[runs - 1], rss[runs / 2]));
+            }
+
+            System.out.printf("%nTime to first GET /api/users/{id}, runs=%d aot=%s%n", runs, options.getOrDefault("aot", "false"));
+            System.out.printf("%-6s %10s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms", "RSS MiB");
+            report.forEach(System.out::println);
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    /**
+     * Starts the application once, so Liquibase has migrated the database, and creates the user the runs read
+     *
+     * @return The id of the user
+     */
+    private static long prepare(ProcessBuilder command, Duration timeout) throws Exception {
+        try (ApplicationProcess application = ApplicationProcess.start(command)) {
+            application.awaitOk("/api/users?size=1&count=none", timeout);
+            String body = "{\"username\":\"startup\",\"email\":\"startup-" + System.currentTimeMillis()
+                    + "@example.com\",\"password\":\"startup-password\"}";
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create(application.baseUrl() + "/api/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Creating the user failed: " + response.statusCode() + " " + response.body());
+            }
+            return Long.parseLong(matcher.group(1));
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,221 @@
+package com.fabiornt.rest_template.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.fabiornt.rest_template.RestTemplateApplication;
+
+/**
+ * Load benchmark comparing request handling on Tomcat's platform thread pool with Java 21 virtual threads.
+ *
+ * <p>For each mode the application is started in-process against PostgreSQL (a Testcontainers
+ * container, or an existing database given with {@code jdbcUrl=...}), then {@code clients} concurrent
+ * clients read random pages of {@code GET /api/users} for {@code duration} seconds after a warm-up.
+ * Page reads go to the database on every request, so the run measures requests blocked on JDBC.
+ * Throughput and p50/p99/max latency are printed per mode.
+ *
+ * <p>Arguments are {@code key=value} pairs: {@code clients} (default 1000), {@code warmup} and
+ * {@code duration} in seconds (10 and 30), {@code users} to seed (10000), {@code poolSize} (20),
+ * {@code tomcatThreads} (200), {@code loadShedding} (false), and {@code jdbcUrl}/{@code username}/{@code password}.
+ * Load shedding is off by default: with it, most clients would get fast 503s instead of measured responses.
+ */
+public class ThreadModeLoadBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+
+        PostgreSQLContainer<?> container = null;
+        String jdbcUrl = options.get("jdbcUrl");
+        String username = options.getOrDefault("username", "benchmark");
+        String password = options.getOrDefault("password", "benchmark");
+        if (jdbcUrl == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("benchmark")
+                    .withUsername(username)
+                    .withPassword(password);
+            container.start();
+            jdbcUrl = container.getJdbcUrl();
+        }
+
+        try {
+            List<String> report = new ArrayList<>();
+            boolean seeded = false;
+            for (boolean virtualThreads : new boolean[] { false, true }) {
+                try (ConfigurableApplicationContext context = start(options, jdbcUrl, username, password, virtualThreads)) {
+                    String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                    if (!seeded) {
+                        seed(baseUrl, users);
+                        seeded = true;
+                    }
+                    int pages = Math.max(1, users / PAGE_SIZE);
+                    run(baseUrl, clients, pages, Duration.ofSeconds(warmup));
+                    Result result = run(baseUrl, clients, pages, Duration.ofSeconds(duration));
+                    report.add(String.format("%-9s %10.1f %10.1f %10.1f %10.1f %8d",
+                            virtualThreads ? "virtual" : "platform",
+                            result.throughput(), result.percentile(50), result.percentile(99), result.max(), result.errors()));
+                }
+            }
+
+            System.out.printf("%nclients=%d duration=%ds%n", clients, duration);
+            System.out.printf("%-9s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            report.forEach(System.out::println);
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Map<String, String> options, String jdbcUrl,
+                                                        String username, String password, boolean virtualThreads) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(RestTemplateApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=" + username,
+                        "spring.datasource.password=" + password,
+                        "spring.jpa.show-sql=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + options.getOrDefault("tomcatThreads", "200"),
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=2000",
+                        "spring.datasource.hikari.maximum-pool-size=" + options.getOrDefault("poolSize", "20"),
+                        "spring.datasource.hikari.minimum-idle=" + options.getOrDefault("poolSize", "20"),
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "api.load-shedding.enabled=" + options.getOrDefault("loadShedding", "false"))
+                .run();
+    }
+
+    private static void seed(String baseUrl, int users) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (int start = 0; start < users; start += 1000) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < Math.min(start + 1000, users); i++) {
+                if (i > start) {
+                    body.append(',');
+                }
+                body.append("{\"username\":\"user").append(i)
+                        .append("\",\"email\":\"user").append(i).append("@example.com\"")
+                        .append(",\"password\":\"password").append(i).append("\"}");
+            }
+            body.append(']');
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private static Result run(String baseUrl, int clients, int pages, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        int page = ThreadLocalRandom.current().nextInt(pages);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                                        baseUrl + "/api/users?size=" + PAGE_SIZE + "&count=none&page=" + page))
+                                .header("Accept", "application/json")
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        List<long[]> all = new ArrayList<>(clients);
+        int total = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            all.add(latencies);
+            total += latencies.length;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] latencies : all) {
+            System.arraycopy(latencies, 0, merged, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(merged);
+        return new Result(merged, duration, errors.get());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private record Result(long[] sortedLatencies, Duration duration, long errors) {
+
+        double throughput() {
+            return sortedLatencies.length / (double) duration.toSeconds();
+        }
+
+        double percentile(int percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        double max() {
+            return sortedLatencies.length == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1] / 1_000_000.0;
+        }
+    }
+}
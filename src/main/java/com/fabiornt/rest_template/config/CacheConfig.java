@@ -0,0 +1,14 @@
+package com.fabiornt.rest_template.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache infrastructure.
+ * Caches, their size and TTL limits are configured through the spring.cache.* properties,
+ * and their statistics are published through the actuator metrics endpoint.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -1,8 +1,10 @@
 package com.fabiornt.rest_template.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -18,16 +20,22 @@ import java.util.List;
 @Configuration
 public class CorsConfig {
 
+    /**
+     * Order of the CORS filter. Filters that reject requests, such as load shedding, run right after it,
+     * so their responses carry CORS headers too.
+     */
+    public static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 30;
+
     @Value("${cors.allowed-origins:*}")
     private String allowedOrigins;
 
     @Value("${cors.allowed-methods:GET,POST,PUT,PATCH,DELETE,OPTIONS}")
     private String allowedMethods;
 
-    @Value("${cors.allowed-headers:Origin,Content-Type,Accept,Authorization,X-Requested-With}")
+    @Value("${cors.allowed-headers:Origin,Content-Type,Accept,Authorization,X-Requested-With,If-Match,If-None-Match,Range}")
     private String allowedHeaders;
 
-    @Value("${cors.exposed-headers:Access-Control-Allow-Origin,Access-Control-Allow-Credentials,Authorization}")
+    @Value("${cors.exposed-headers:Access-Control-Allow-Origin,Access-Control-Allow-Credentials,Authorization,ETag,Location,Content-Range,Accept-Ranges,Retry-After}")
     private String exposedHeaders;
 
     @Value("${cors.allow-credentials:true}")
@@ -37,7 +45,7 @@ public class CorsConfig {
     private Long maxAge;
 
     @Bean
-    public CorsFilter corsFilter() {
+    public FilterRegistrationBean<CorsFilter> corsFilter() {
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         final CorsConfiguration config = new CorsConfiguration();
 
@@ -66,6 +74,8 @@ public class CorsConfig {
         // Apply this configuration to all paths
         source.registerCorsConfiguration("/**", config);
 
-        return new CorsFilter(source);
+        FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
     }
 }
@@ -0,0 +1,39 @@
+package com.fabiornt.rest_template.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fabiornt.rest_template.http.UserJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Configuration class for JSON and binary JSON serialization.
+ * Registers the streaming converter for user responses, and CBOR and Smile converters built
+ * from Spring Boot's Jackson settings, so every format renders the envelopes the same way.
+ * Spring Boot places converter beans ahead of its default converters.
+ */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "api.json.fast-path.enabled", havingValue = "true", matchIfMissing = true)
+    public UserJsonHttpMessageConverter userJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new UserJsonHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
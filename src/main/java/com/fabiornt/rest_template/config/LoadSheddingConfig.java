@@ -0,0 +1,88 @@
+package com.fabiornt.rest_template.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fabiornt.rest_template.loadshedding.AimdConcurrencyLimiter;
+import com.fabiornt.rest_template.loadshedding.LoadSheddingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration class for load shedding and per-client rate limiting of API requests.
+ * The filter runs right after the CORS filter, so rejections still carry CORS headers and browsers can read them.
+ */
+@Configuration
+public class LoadSheddingConfig {
+
+    @Value("${api.load-shedding.enabled:true}")
+    private boolean loadSheddingEnabled;
+
+    @Value("${api.load-shedding.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${api.load-shedding.min-limit:4}")
+    private int minLimit;
+
+    @Value("${api.load-shedding.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${api.load-shedding.latency-threshold:1s}")
+    private Duration latencyThreshold;
+
+    @Value("${api.load-shedding.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${api.load-shedding.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Value("${api.load-shedding.excluded-paths:/api/users/import,/api/users/export.csv,/api/users/exports/*/file,/api/users/changes,/api/users/stream}")
+    private String excludedPaths;
+
+    @Value("${api.load-shedding.unmeasured-paths:/api/users/batch,/api/users/lookup}")
+    private String unmeasuredPaths;
+
+    @Value("${api.rate-limit.enabled:false}")
+    private boolean rateLimitEnabled;
+
+    @Value("${api.rate-limit.requests-per-second:50}")
+    private double requestsPerSecond;
+
+    @Value("${api.rate-limit.burst:100}")
+    private int burst;
+
+    @Value("${api.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        AimdConcurrencyLimiter limiter = null;
+        if (loadSheddingEnabled) {
+            limiter = new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+            Gauge.builder("api.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                    .description("Current adaptive limit of concurrent API requests").register(meterRegistry);
+            Gauge.builder("api.concurrency.in.flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                    .description("API requests currently counted against the limit").register(meterRegistry);
+        }
+
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter, rateLimitEnabled ? requestsPerSecond : 0, burst, maxClients,
+                retryAfter, paths(excludedPaths), paths(unmeasuredPaths), objectMapper, meterRegistry);
+
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(CorsConfig.FILTER_ORDER + 1);
+        return registration;
+    }
+
+    private static List<String> paths(String patterns) {
+        return Arrays.stream(patterns.split(",")).map(String::trim).filter(path -> !path.isEmpty()).toList();
+    }
+}
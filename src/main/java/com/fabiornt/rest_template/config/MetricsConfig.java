@@ -0,0 +1,42 @@
+package com.fabiornt.rest_template.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fabiornt.rest_template.metrics.RequestMetricsFilter;
+import com.fabiornt.rest_template.metrics.RequestMetricsInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration class for request-level metrics.
+ * Endpoint latency histograms, Hikari, Hibernate and cache metrics come from Spring Boot Actuator;
+ * this adds the per-request breakdown of service, assembly and serialization time.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Value("${api.metrics.slow-request-threshold:500ms}")
+    private Duration slowRequestThreshold;
+
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestMetricsFilter(meterRegistry, slowRequestThreshold));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor()).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,61 @@
+package com.fabiornt.rest_template.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.ExportJobModel;
+import com.fabiornt.rest_template.domain.model.ImportSummary;
+import com.fabiornt.rest_template.domain.model.StoredPassword;
+import com.fabiornt.rest_template.domain.model.UserChangeFeed;
+import com.fabiornt.rest_template.domain.model.UserFilter;
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.http.ApiErrorResponse;
+import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.http.ApiResponseCollection;
+import com.fabiornt.rest_template.http.PagedApiResponseCollection;
+import com.fabiornt.rest_template.metrics.SqlStatementCounter;
+
+/**
+ * Reflection and resource hints for the native image ({@code -Pnative}).
+ * Spring AOT covers beans, entities, repositories and the declared types of controller methods; these hints
+ * cover what it can't see: generic response bodies, classes created or read reflectively by name,
+ * and resources loaded by libraries.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ApiRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ApiRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Lombok-built response bodies: Jackson reads their getters, and their type parameters are only known at runtime.
+            // ApiErrorResponse is also written directly by LoadSheddingFilter.
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    ApiResponse.class, ApiResponseCollection.class, PagedApiResponseCollection.class, ApiErrorResponse.class,
+                    UserModel.class, ExportJobModel.class, BatchItemResult.class, ImportSummary.class, ImportSummary.Rejection.class,
+                    UserChangeFeed.class);
+
+            // Query parameters of GET /api/users, bound through the record's constructor
+            bindingRegistrar.registerReflectionHints(hints.reflection(), UserFilter.class);
+
+            // Constructor expressions of the read queries (select new ..., CriteriaBuilder.construct)
+            hints.reflection().registerType(UserView.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(StoredPassword.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Instantiated by Hibernate from hibernate.session_factory.statement_inspector
+            hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Messages of opencsv's parse errors, reported for malformed CSV imports
+            hints.resources().registerResourceBundle("opencsv");
+        }
+    }
+}
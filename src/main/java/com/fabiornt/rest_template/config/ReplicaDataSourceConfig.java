@@ -0,0 +1,92 @@
+package com.fabiornt.rest_template.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.fabiornt.rest_template.datasource.ReadYourWritesFilter;
+import com.fabiornt.rest_template.datasource.ReplicaHealth;
+import com.fabiornt.rest_template.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuration class for reading from a PostgreSQL read replica, active when {@code api.datasource.replica.url} is set.
+ *
+ * <p>The application's data source is a {@code LazyConnectionDataSourceProxy} over the primary pool. It only fetches
+ * a real connection at the first statement, once the transaction is known to be read-only: read-only transactions
+ * ({@code @Transactional(readOnly = true)} service methods and Spring Data's read methods) then get a connection from
+ * {@link ReplicaRoutingDataSource}, everything else, including Liquibase and Hibernate schema updates, from the primary.
+ * Without a replica URL, Spring Boot's single data source is used unchanged.
+ */
+@Configuration
+@ConditionalOnExpression("!'${api.datasource.replica.url:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * The primary pool, configured like Spring Boot's own from the {@code spring.datasource} properties.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * The replica pool. Credentials default to the primary's, and the pool settings come from
+     * {@code api.datasource.replica.hikari}.
+     */
+    @Bean
+    @ConfigurationProperties("api.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${api.datasource.replica.url}") String url,
+                                              @Value("${api.datasource.replica.username:}") String username,
+                                              @Value("${api.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealth replicaHealth(@Qualifier("replicaDataSource") DataSource replica,
+                                       @Value("${api.datasource.replica.max-lag:5s}") Duration maxLag) {
+        return new ReplicaHealth(replica, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaHealth replicaHealth) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, replicaHealth));
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${api.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,13 @@
+package com.fabiornt.rest_template.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods, such as the cleanup of expired export files.
+ * They run on Spring Boot's auto-configured task scheduler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
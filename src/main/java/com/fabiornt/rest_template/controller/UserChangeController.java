@@ -0,0 +1,85 @@
+package com.fabiornt.rest_template.controller;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fabiornt.rest_template.domain.model.UserChangeFeed;
+import com.fabiornt.rest_template.exception.InvalidRequestParameterException;
+import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.http.ResponseBuilder;
+import com.fabiornt.rest_template.service.UserChangeRelay;
+import com.fabiornt.rest_template.service.UserChangeStream;
+
+/**
+ * User changes, as an incremental feed and as a Server-Sent Events stream. A feed consumer keeps the
+ * {@code next} value of each response and sends it back as {@code since}; when nothing has changed the
+ * request is held open (long poll) until a change arrives or {@code wait} runs out, without holding a request thread.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserChangeController {
+
+    private final UserChangeRelay userChangeRelay;
+    private final UserChangeStream userChangeStream;
+    private final int maxLimit;
+    private final Duration maxWait;
+
+    @Autowired
+    public UserChangeController(UserChangeRelay userChangeRelay, UserChangeStream userChangeStream,
+                                @Value("${api.changes.batch-size:1000}") int maxLimit,
+                                @Value("${api.changes.max-wait:60s}") Duration maxWait) {
+        this.userChangeRelay = userChangeRelay;
+        this.userChangeStream = userChangeStream;
+        this.maxLimit = maxLimit;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Get the user changes after a position
+     *
+     * @param since The {@code next} value of the previous response; without it the feed starts at the current position
+     * @param limit Maximum number of changes to return (default 100, at most {@code api.changes.batch-size})
+     * @param wait Seconds to wait for a change when there is none yet (default 30, 0 to return at once)
+     * @return The changes, oldest first, and the position to continue from; 410 Gone if they were already purged
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<ApiResponse<UserChangeFeed>>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "30") long wait) {
+        if (since != null && since < 0) {
+            throw new InvalidRequestParameterException("since", since);
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidRequestParameterException("limit", limit);
+        }
+        if (wait < 0 || wait > maxWait.toSeconds()) {
+            throw new InvalidRequestParameterException("wait", wait);
+        }
+
+        return userChangeRelay.awaitChanges(since, limit, Duration.ofSeconds(wait))
+                .thenApply(ResponseBuilder::success);
+    }
+
+    /**
+     * Stream user changes as Server-Sent Events
+     *
+     * @param lastEventId The id of the last event received, sent by browsers when they reconnect
+     * @return The event stream: {@code change} events, and {@code resync} when the users must be reloaded
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return userChangeStream.subscribe(lastEventId);
+    }
+}
@@ -1,12 +1,18 @@
 package com.fabiornt.rest_template.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -22,16 +28,30 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.exception.InvalidRequestParameterException;
 import com.fabiornt.rest_template.exception.ResourceNotFoundException;
+import com.fabiornt.rest_template.http.ApiMediaTypes;
 import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.http.ApiResponseCollection;
+import com.fabiornt.rest_template.http.ETags;
 import com.fabiornt.rest_template.http.LinkBuilder;
 import com.fabiornt.rest_template.http.ResponseBuilder;
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.ImportSummary;
 import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserFilter;
 import com.fabiornt.rest_template.domain.model.UserModelAssembler;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.service.CountStrategy;
+import com.fabiornt.rest_template.service.UserBatchService;
+import com.fabiornt.rest_template.service.UserImportService;
 import com.fabiornt.rest_template.service.UserService;
+import com.fabiornt.rest_template.service.UserSort;
 import com.fabiornt.rest_template.util.CsvConverter;
+import com.fabiornt.rest_template.util.CursorCodec;
 
 import jakarta.validation.Valid;
 
@@ -40,11 +60,16 @@ import jakarta.validation.Valid;
 public class UserController {
 
     private final UserService userService;
+    private final UserBatchService userBatchService;
+    private final UserImportService userImportService;
     private final UserModelAssembler userModelAssembler;
 
     @Autowired
-    public UserController(UserService userService, UserModelAssembler userModelAssembler) {
+    public UserController(UserService userService, UserBatchService userBatchService,
+                          UserImportService userImportService, UserModelAssembler userModelAssembler) {
         this.userService = userService;
+        this.userBatchService = userBatchService;
+        this.userImportService = userImportService;
         this.userModelAssembler = userModelAssembler;
     }
 
@@ -57,68 +82,262 @@ public class UserController {
         return ResponseBuilder.created(userModel);
     }
 
+    /**
+     * Create users in bulk. Emails are checked with one query per chunk and users are inserted with JDBC batching.
+     *
+     * @param users The users to create
+     * @return One result per user, in request order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponseCollection<BatchItemResult<UserModel>>> createUsers(@RequestBody List<User> users) {
+        return batchResponse(userBatchService.createUsers(users));
+    }
+
+    /**
+     * Update users in bulk. Every user must include its id.
+     *
+     * @param users The users to update
+     * @return One result per user, in request order
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<ApiResponseCollection<BatchItemResult<UserModel>>> updateUsers(@RequestBody List<User> users) {
+        return batchResponse(userBatchService.updateUsers(users));
+    }
+
+    /**
+     * Delete users in bulk
+     *
+     * @param ids The ids of the users to delete
+     * @return One result per id, in request order
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<ApiResponseCollection<BatchItemResult<UserModel>>> deleteUsers(@RequestBody List<Long> ids) {
+        return batchResponse(userBatchService.deleteUsers(ids));
+    }
+
+    /**
+     * Look up many users at once, instead of one {@code GET /api/users/{id}} per user.
+     * Cached users are served from the cache and the rest are read with one query.
+     *
+     * @param ids The ids of the users to get
+     * @return One result per id, in request order; ids without a user have a 404 status and no data
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ApiResponseCollection<BatchItemResult<UserModel>>> lookupUsers(@RequestBody List<Long> ids) {
+        List<BatchItemResult<UserModel>> models = userService.getUsersByIds(ids).stream()
+                .map(result -> result.map(userModelAssembler::toModel))
+                .collect(Collectors.toList());
+        return ResponseBuilder.collection(models);
+    }
+
+    /**
+     * Import users from an NDJSON or CSV body of any size. The body is parsed as it arrives
+     * and users are committed in batches, so memory use doesn't depend on the size of the upload.
+     *
+     * @param contentType {@code application/x-ndjson} or {@code text/csv}
+     * @param body The request body
+     * @return Accepted and rejected counts, with the line numbers of rejected records
+     * @throws IOException if reading the body fails
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ApiMediaTypes.TEXT_CSV_VALUE})
+    public ResponseEntity<ApiResponse<ImportSummary>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ImportSummary summary = ApiMediaTypes.TEXT_CSV.isCompatibleWith(contentType)
+                ? userImportService.importCsv(body)
+                : userImportService.importNdjson(body);
+        return ResponseBuilder.success(summary);
+    }
+
+    private ResponseEntity<ApiResponseCollection<BatchItemResult<UserModel>>> batchResponse(List<BatchItemResult<User>> results) {
+        List<BatchItemResult<UserModel>> models = results.stream()
+                .map(result -> result.map(userModelAssembler::toModel))
+                .collect(Collectors.toList());
+        return ResponseBuilder.collection(models);
+    }
+
     /**
      * Get all users with pagination and content negotiation support.
-     * Supports both JSON and CSV formats based on the Accept header.
+     * Supports JSON, CSV, CBOR and Smile formats based on the Accept header.
+     * When an {@code after} cursor is given, keyset pagination is used instead of page numbers:
+     * the page starts after the cursor, no count query is run and a {@code next} link carries the following cursor.
+     * Responses carry a collection ETag; when it matches {@code If-None-Match}, a 304 is returned
+     * without loading the page.
+     * The filters ({@code username} prefix, {@code emailDomain}, {@code minId}, {@code maxId}) and the sort
+     * are applied by the database and carried along in the pagination links.
      *
      * @param page Page number (0-based)
      * @param size Page size
+     * @param after Opaque cursor from a previous {@code next} link; blank starts at the beginning
+     * @param count How to count the total: {@code exact}, {@code none} or {@code estimate}; defaults to the configured strategy
+     * @param sort Sort field and optional direction, e.g. {@code username,desc}: {@code id} (default), {@code username} or {@code email};
+     *             cursor pagination is always by id
+     * @param filter Filters bound from the query parameters
      * @param acceptHeader The Accept header from the request
+     * @param ifNoneMatch The If-None-Match header from the request
      * @return Response with users in the requested format
      */
-    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, ApiMediaTypes.TEXT_CSV_VALUE,
+            ApiMediaTypes.APPLICATION_CBOR_VALUE, ApiMediaTypes.APPLICATION_SMILE_VALUE})
     public ResponseEntity<?> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader) {
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String count,
+            @RequestParam(required = false) String sort,
+            UserFilter filter,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // Validate the sort before the ETag check, so an invalid one is never answered with a 304
+        Sort userSort = UserSort.from(sort);
+        if (after != null && !userSort.equals(UserSort.DEFAULT)) {
+            throw new InvalidRequestParameterException("sort", sort);
+        }
+
+        MediaType mediaType = ApiMediaTypes.negotiate(acceptHeader);
+        String eTag = ETags.forUsers(userService.getUsersVersion(), ApiMediaTypes.representation(mediaType));
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseBuilder.notModified(eTag);
+        }
+
+        boolean asCsv = ApiMediaTypes.TEXT_CSV.equals(mediaType);
+        if (after != null) {
+            return ResponseBuilder.withETag(getUsersAfter(after, size, filter, asCsv), eTag, mediaType);
+        }
+        return ResponseBuilder.withETag(getUsersPage(page, size, count, userSort, sort, filter, asCsv), eTag, mediaType);
+    }
 
+    /**
+     * Offset pagination branch of {@link #getAllUsers}.
+     */
+    private ResponseEntity<?> getUsersPage(int page, int size, String count, Sort userSort, String sort,
+                                           UserFilter filter, boolean asCsv) {
         // Create pageable request with sorting
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
+        Pageable pageable = PageRequest.of(page, size, userSort);
 
-        // Get paginated users
-        Page<User> userPage = userService.getAllUsers(pageable);
+        // Get paginated users, counting the total as requested
+        Slice<UserView> userPage = userService.getAllUsers(filter, pageable, CountStrategy.from(count));
 
         // Convert to UserModel
         List<UserModel> userModels = userPage.getContent().stream()
                 .map(userModelAssembler::toModel)
                 .collect(Collectors.toList());
 
-        // Check if the client accepts CSV
-        if (acceptHeader != null && acceptHeader.contains("text/csv")) {
-            // Convert to CSV and return with appropriate headers
-            String csvData = CsvConverter.toCsv(userModels);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType("text/csv"))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.csv")
-                    .body(csvData);
+        // Check if the client prefers CSV
+        if (asCsv) {
+            return csv(userModels);
         } else {
             // Default to JSON response with pagination
             // Each UserModel already has links from UserModelAssembler
             // For collection-level links, we use the LinkBuilder.forPaginatedUsers()
-            return ResponseBuilder.pagedCollection(userPage, userModels, LinkBuilder.forPaginatedUsers(page, size, userPage));
+            return ResponseBuilder.pagedCollection(userPage, userModels, LinkBuilder.forPaginatedUsers(page, size, count, filter, sort, userPage));
+        }
+    }
+
+    /**
+     * Keyset pagination branch of {@link #getAllUsers}.
+     */
+    private ResponseEntity<?> getUsersAfter(String after, int size, UserFilter filter, boolean asCsv) {
+        Slice<UserView> userSlice = userService.getUsersAfter(filter, CursorCodec.decode(after), size);
+
+        List<UserModel> userModels = userSlice.getContent().stream()
+                .map(userModelAssembler::toModel)
+                .collect(Collectors.toList());
+
+        if (asCsv) {
+            return csv(userModels);
         }
+
+        String nextCursor = userSlice.hasNext()
+                ? CursorCodec.encode(userModels.get(userModels.size() - 1).getId())
+                : null;
+        return ResponseBuilder.collection(userModels, LinkBuilder.forCursorUsers(after, size, filter, nextCursor));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserModel>> getUserById(@PathVariable Long id) {
-        User user = userService.getUserById(id)
+    private static ResponseEntity<String> csv(List<UserModel> userModels) {
+        // Convert to CSV and return with appropriate headers
+        String csvData = CsvConverter.toCsv(userModels);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.csv")
+                .body(csvData);
+    }
+
+    /**
+     * Export all users as CSV, streamed straight to the response.
+     * Rows are read through a database cursor and written as they arrive,
+     * without building HATEOAS links, so memory use stays flat however many users exist.
+     *
+     * @return Streaming CSV response
+     */
+    @GetMapping(value = "/export.csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            userService.exportUsers(users -> CsvConverter.writeCsv(users, writer));
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.csv")
+                .body(body);
+    }
+
+    /**
+     * Get a user by id. The response carries the ETag of the user in the negotiated representation;
+     * when it matches {@code If-None-Match}, a 304 is returned without building or serializing the model.
+     *
+     * @param id The user ID
+     * @param acceptHeader The Accept header from the request
+     * @param ifNoneMatch The If-None-Match header from the request
+     * @return The user, or 304 Not Modified
+     */
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ApiMediaTypes.APPLICATION_CBOR_VALUE, ApiMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ApiResponse<UserModel>> getUserById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        UserView user = userService.getUserById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
+        MediaType mediaType = ApiMediaTypes.negotiate(acceptHeader, ApiMediaTypes.USER_TYPES);
+        String eTag = ETags.forUser(user, ApiMediaTypes.representation(mediaType));
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseBuilder.notModified(eTag);
+        }
+
         UserModel userModel = userModelAssembler.toModel(user);
         // UserModel already has links from UserModelAssembler
-        return ResponseBuilder.success(userModel);
+        return ResponseBuilder.success(userModel, eTag, mediaType);
     }
 
-    @PutMapping("/{id}")
+    /**
+     * Replace a user. With an {@code If-Match} header, the update only happens if the user
+     * still has that ETag, otherwise 412 Precondition Failed is returned.
+     *
+     * @param id The user ID
+     * @param userDetails The new field values
+     * @param acceptHeader The Accept header from the request
+     * @param ifMatch The If-Match header from the request
+     * @return The updated user with its new ETag
+     */
+    @PutMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ApiMediaTypes.APPLICATION_CBOR_VALUE, ApiMediaTypes.APPLICATION_SMILE_VALUE})
     public ResponseEntity<ApiResponse<UserModel>> updateUser(
             @PathVariable Long id,
-            @Valid @RequestBody User userDetails) {
+            @Valid @RequestBody User userDetails,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        User updatedUser = userService.updateUser(id, userDetails);
+        User updatedUser = userService.updateUser(id, userDetails, ETags.expectedUserVersion(ifMatch, id));
         UserModel userModel = userModelAssembler.toModel(updatedUser);
 
         // UserModel already has links from UserModelAssembler
-        return ResponseBuilder.success(userModel);
+        MediaType mediaType = ApiMediaTypes.negotiate(acceptHeader, ApiMediaTypes.USER_TYPES);
+        return ResponseBuilder.success(userModel, ETags.forUser(updatedUser, ApiMediaTypes.representation(mediaType)), mediaType);
     }
 
     @DeleteMapping("/{id}")
@@ -128,21 +347,28 @@ public class UserController {
     }
 
     /**
-     * Partially update a user with the provided fields
+     * Partially update a user with the provided fields.
+     * With an {@code If-Match} header, the update only happens if the user still has that ETag.
      *
      * @param id The user ID
      * @param userPatch The user object with fields to update
-     * @return The updated user
+     * @param acceptHeader The Accept header from the request
+     * @param ifMatch The If-Match header from the request
+     * @return The updated user with its new ETag
      */
-    @PatchMapping("/{id}")
+    @PatchMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ApiMediaTypes.APPLICATION_CBOR_VALUE, ApiMediaTypes.APPLICATION_SMILE_VALUE})
     public ResponseEntity<ApiResponse<UserModel>> patchUser(
             @PathVariable Long id,
-            @RequestBody User userPatch) {
+            @RequestBody User userPatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        User patchedUser = userService.patchUser(id, userPatch);
+        User patchedUser = userService.patchUser(id, userPatch, ETags.expectedUserVersion(ifMatch, id));
         UserModel userModel = userModelAssembler.toModel(patchedUser);
 
         // UserModel already has links from UserModelAssembler
-        return ResponseBuilder.success(userModel);
+        MediaType mediaType = ApiMediaTypes.negotiate(acceptHeader, ApiMediaTypes.USER_TYPES);
+        return ResponseBuilder.success(userModel, ETags.forUser(patchedUser, ApiMediaTypes.representation(mediaType)), mediaType);
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.fabiornt.rest_template.controller;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fabiornt.rest_template.domain.model.ExportFormat;
+import com.fabiornt.rest_template.domain.model.ExportJob;
+import com.fabiornt.rest_template.domain.model.ExportJobModel;
+import com.fabiornt.rest_template.domain.model.ExportJobModelAssembler;
+import com.fabiornt.rest_template.exception.ResourceNotFoundException;
+import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.http.FileResponses;
+import com.fabiornt.rest_template.http.ResponseBuilder;
+import com.fabiornt.rest_template.service.UserExportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Background exports of all users. An export is started with a POST, followed through its job resource
+ * and downloaded from {@code /file} once complete; downloads support {@code Range} so they can be resumed.
+ */
+@RestController
+@RequestMapping("/api/users/exports")
+public class UserExportController {
+
+    private final UserExportService userExportService;
+    private final ExportJobModelAssembler exportJobModelAssembler;
+
+    @Autowired
+    public UserExportController(UserExportService userExportService, ExportJobModelAssembler exportJobModelAssembler) {
+        this.userExportService = userExportService;
+        this.exportJobModelAssembler = exportJobModelAssembler;
+    }
+
+    /**
+     * Start an export of all users
+     *
+     * @param format File format: {@code csv} (default) or {@code ndjson}
+     * @return 202 Accepted with the job and its location
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ExportJobModel>> startExport(@RequestParam(required = false) String format) {
+        ExportJob job = userExportService.startExport(ExportFormat.from(format));
+        ExportJobModel jobModel = exportJobModelAssembler.toModel(job);
+
+        return ResponseBuilder.accepted(jobModel, URI.create(jobModel.getRequiredLink(IanaLinkRelations.SELF).getHref()));
+    }
+
+    /**
+     * Get the status and progress of an export
+     *
+     * @param id The job ID
+     * @return The job, with a download link once it has completed
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ExportJobModel>> getExport(@PathVariable String id) {
+        ExportJob job = userExportService.getExport(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Export", "id", id));
+
+        return ResponseBuilder.success(exportJobModelAssembler.toModel(job));
+    }
+
+    /**
+     * Download the file of a completed export, whole or as a byte range
+     *
+     * @param id The job ID
+     * @param request The current request
+     * @return The file, or the requested part of it
+     * @throws IOException if the file can't be read
+     */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String id, HttpServletRequest request) throws IOException {
+        ExportJob job = userExportService.getCompletedExport(id);
+
+        return FileResponses.download(job.getFile(), MediaType.parseMediaType(job.getFormat().getMediaType()),
+                job.getFileName(), "\"" + job.getId() + "\"", request);
+    }
+
+    /**
+     * Cancel an export, or delete the file of a finished one
+     *
+     * @param id The job ID
+     * @return 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteExport(@PathVariable String id) {
+        userExportService.deleteExport(id);
+        return ResponseBuilder.noContent();
+    }
+}
@@ -0,0 +1,84 @@
+package com.fabiornt.rest_template.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives every client read-your-writes consistency while reads go to a lagging replica.
+ *
+ * <p>A request with an unsafe method (POST, PUT, PATCH, DELETE) gets a cookie holding the end of the
+ * read-your-writes window, and requests carrying an unexpired cookie, as well as the writing request itself,
+ * read from the primary through {@link ReplicaRoutingDataSource#pinToPrimary()}. The window should exceed
+ * the replica's usual replication lag.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "api-read-primary-until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = isUnsafe(request.getMethod());
+        if (write) {
+            // Set before the chain runs, while the response can't have been committed yet
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(now + window.toMillis()))
+                    .path(request.getContextPath() + "/")
+                    .maxAge(window)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        if (!write && !withinWindow(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private static boolean isUnsafe(String method) {
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    /**
+     * Whether the request carries a window that is still open. A window reaching further than one
+     * configured window from now was not issued by this filter and is ignored.
+     */
+    private boolean withinWindow(HttpServletRequest request, long now) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            long until = Long.parseLong(cookie.getValue());
+            return until > now && until <= now + window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
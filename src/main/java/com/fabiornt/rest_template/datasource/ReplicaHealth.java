@@ -0,0 +1,74 @@
+package com.fabiornt.rest_template.datasource;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Tracks whether the read replica can serve reads: it must accept connections and replay the
+ * primary's changes with a lag below {@code api.datasource.replica.max-lag}.
+ * Checked every {@code api.datasource.replica.health-check-interval}; a failed connection attempt
+ * marks it down immediately, and the next successful check brings it back.
+ */
+public class ReplicaHealth {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealth.class);
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when everything received has been replayed
+     * (an idle primary sends nothing, so the replay timestamp alone would keep growing).
+     * A server that is not a standby, e.g. a stand-in pointing at the primary, always has no lag.
+     */
+    private static final String LAG_QUERY = """
+            select case when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end""";
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private volatile boolean up = true;
+
+    public ReplicaHealth(DataSource replica, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * @return Whether reads can go to the replica
+     */
+    public boolean isUp() {
+        return up;
+    }
+
+    /**
+     * Marks the replica down until the next successful check
+     *
+     * @param cause Why the replica can't be used
+     */
+    public void markDown(Exception cause) {
+        if (up) {
+            up = false;
+            log.warn("Read replica is down, reading from the primary: {}", cause.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.datasource.replica.health-check-interval:5s}")
+    public void check() {
+        try {
+            Double lagSeconds = replica.queryForObject(LAG_QUERY, Double.class);
+            Duration lag = Duration.ofMillis((long) (lagSeconds * 1000));
+            if (lag.compareTo(maxLag) > 0) {
+                markDown(new IllegalStateException("Replication lag of " + lag + " exceeds " + maxLag));
+            } else if (!up) {
+                up = true;
+                log.info("Read replica is up again, replication lag {}", lag);
+            }
+        } catch (RuntimeException e) {
+            markDown(e);
+        }
+    }
+}
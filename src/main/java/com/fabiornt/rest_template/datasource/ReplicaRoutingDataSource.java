@@ -0,0 +1,75 @@
+package com.fabiornt.rest_template.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Read-only connections, taken from the replica when it can serve the current thread and from the primary otherwise.
+ *
+ * <p>The primary is used while the thread is pinned by {@link ReadYourWritesFilter}, while {@link ReplicaHealth}
+ * reports the replica down, and when the replica pool can't hand out a connection, which also marks it down.
+ * It is plugged in as the read-only data source of a {@code LazyConnectionDataSourceProxy}, so it only ever
+ * sees {@code @Transactional(readOnly = true)} work.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealth replicaHealth;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth replicaHealth) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaHealth = replicaHealth;
+    }
+
+    /**
+     * Sends every read of the current thread to the primary until {@link #unpin()} is called
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * @return Whether reads of the current thread go to the primary
+     */
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isPinnedToPrimary() || !replicaHealth.isUp()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaHealth.markDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (isPinnedToPrimary() || !replicaHealth.isUp()) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            replicaHealth.markDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.fabiornt.rest_template.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -19,8 +23,10 @@ import lombok.NoArgsConstructor;
 @Table(name = "users")
 public class User
 {
+    // Pooled sequence, so Hibernate can batch inserts instead of running one IDENTITY insert per user
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Username is required")
@@ -34,4 +40,9 @@ public class User
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     private String password;
+
+    // Optimistic locking: incremented on every update and exposed to clients as the ETag
+    @Version
+    @JsonIgnore
+    private Long version;
 }
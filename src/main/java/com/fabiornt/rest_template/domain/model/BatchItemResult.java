@@ -0,0 +1,73 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk operation.
+ * Items are reported in request order; {@code index} is the position of the item in the request.
+ *
+ * @param <T> Type of the item data returned on success
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItemResult<T> {
+    private int index;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long id;
+    private HttpStatus status;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> errors;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private T data;
+
+    public static <T> BatchItemResult<T> success(int index, Long id, HttpStatus status, T data) {
+        return BatchItemResult.<T>builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .data(data)
+                .build();
+    }
+
+    public static <T> BatchItemResult<T> failure(int index, Long id, HttpStatus status, List<String> errors) {
+        return BatchItemResult.<T>builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .errors(errors)
+                .build();
+    }
+
+    public static <T> BatchItemResult<T> failure(int index, Long id, HttpStatus status, String error) {
+        return failure(index, id, status, List.of(error));
+    }
+
+    /**
+     * Converts the data of a successful item, keeping everything else.
+     *
+     * @param <R> Type of the converted data
+     * @param mapper Conversion applied to the data when present
+     * @return Converted result
+     */
+    public <R> BatchItemResult<R> map(Function<? super T, ? extends R> mapper) {
+        return BatchItemResult.<R>builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .errors(errors)
+                .data(data != null ? mapper.apply(data) : null)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page whose total number of elements is an estimate rather than an exact count.
+ *
+ * @param <T> Type of the page content
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    public EstimatedPage(List<T> content, Pageable pageable, long estimatedTotal) {
+        super(content, pageable, estimatedTotal);
+    }
+}
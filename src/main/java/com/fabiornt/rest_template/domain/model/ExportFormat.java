@@ -0,0 +1,59 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import com.fabiornt.rest_template.exception.InvalidRequestParameterException;
+import com.fabiornt.rest_template.http.ApiMediaTypes;
+
+/**
+ * File format of a user export job.
+ */
+public enum ExportFormat {
+
+    /**
+     * CSV with the column layout of {@code CsvConverter}.
+     */
+    CSV(ApiMediaTypes.TEXT_CSV_VALUE, "csv"),
+
+    /**
+     * Newline-delimited JSON, one user object per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Parses an export format from a request parameter (case-insensitive).
+     *
+     * @param value The format name, or null
+     * @return The matching format, or CSV when no value is given
+     * @throws InvalidRequestParameterException if the value is not a known format
+     */
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("format", value);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.Future;
+
+import lombok.Getter;
+
+/**
+ * State of a background user export. A job is written by a single export thread
+ * and read by request threads, so every mutable field is volatile.
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final ExportFormat format;
+    private final Instant createdAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Long totalRows;
+    private volatile long rowsWritten;
+    private volatile long sizeBytes;
+    private volatile Path file;
+    private volatile Instant completedAt;
+    private volatile Instant expiresAt;
+    private volatile String error;
+    private volatile boolean cancelled;
+    private volatile Future<?> future;
+
+    public ExportJob(String id, ExportFormat format, Instant createdAt) {
+        this.id = id;
+        this.format = format;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * File name offered to clients downloading the export
+     *
+     * @return File name with the extension of the format
+     */
+    public String getFileName() {
+        return "users-" + id + "." + format.getExtension();
+    }
+
+    /**
+     * Percentage of rows written so far, based on the row count taken when the job started
+     *
+     * @return Progress from 0 to 100, or null before the job has started
+     */
+    public Integer getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        Long total = totalRows;
+        if (total == null) {
+            return null;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // The table may grow while the export runs, so the count is only an estimate
+        return (int) Math.min(99, rowsWritten * 100 / total);
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public void started(long totalRows) {
+        this.totalRows = totalRows;
+        this.status = Status.RUNNING;
+    }
+
+    public void rowWritten() {
+        // Only the export thread writes, so the non-atomic increment is safe
+        rowsWritten++;
+    }
+
+    public void completed(Path file, long sizeBytes, Instant completedAt, Instant expiresAt) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.completedAt = completedAt;
+        this.expiresAt = expiresAt;
+        this.status = Status.COMPLETED;
+    }
+
+    public void failed(String error, Instant completedAt, Instant expiresAt) {
+        this.error = error;
+        this.completedAt = completedAt;
+        this.expiresAt = expiresAt;
+        this.status = Status.FAILED;
+    }
+
+    /**
+     * Asks a queued or running job to stop. A running job stops at its next row.
+     */
+    public void cancel() {
+        cancelled = true;
+        Future<?> current = future;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+}
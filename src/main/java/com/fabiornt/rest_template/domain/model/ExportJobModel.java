@@ -0,0 +1,57 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.time.Instant;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Relation(collectionRelation = "exports", itemRelation = "export")
+public class ExportJobModel extends RepresentationModel<ExportJobModel> {
+
+    private String id;
+    private ExportFormat format;
+    private ExportJob.Status status;
+    private long rowsWritten;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalRows;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer progress;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sizeBytes;
+    private Instant createdAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant completedAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant expiresAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static ExportJobModel fromJob(ExportJob job) {
+        return ExportJobModel.builder()
+                .id(job.getId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .rowsWritten(job.getRowsWritten())
+                .totalRows(job.getTotalRows())
+                .progress(job.getProgress())
+                .sizeBytes(job.getStatus() == ExportJob.Status.COMPLETED ? job.getSizeBytes() : null)
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .error(job.getError())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.fabiornt.rest_template.domain.model;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import com.fabiornt.rest_template.http.LinkBuilder;
+
+@Component
+public class ExportJobModelAssembler implements RepresentationModelAssembler<ExportJob, ExportJobModel> {
+
+    @Override
+    public ExportJobModel toModel(ExportJob job) {
+        ExportJobModel jobModel = ExportJobModel.fromJob(job);
+
+        // The download link only appears once the file is complete
+        for (Link link : LinkBuilder.forExportJob(job.getId(), job.getStatus() == ExportJob.Status.COMPLETED)) {
+            jobModel.add(link);
+        }
+
+        return jobModel;
+    }
+}
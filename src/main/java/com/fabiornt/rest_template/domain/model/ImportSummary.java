@@ -0,0 +1,35 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk import. Rejected records are listed with their line number in the uploaded file,
+ * up to a configured maximum; {@code rejectionsTruncated} tells whether more were rejected than listed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportSummary {
+    private long records;
+    private long accepted;
+    private long rejected;
+    private List<Rejection> rejections;
+    private boolean rejectionsTruncated;
+
+    /**
+     * A rejected record
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Rejection {
+        private long line;
+        private List<String> errors;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fabiornt.rest_template.domain.model;
+
+/**
+ * The stored password of a user and the version it was read at, selected without loading the entity.
+ */
+public record StoredPassword(String password, Long version) {
+}
@@ -0,0 +1,27 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.time.Instant;
+
+/**
+ * A committed change of a user, as recorded in the {@code user_changes} outbox.
+ * Sequence numbers increase with every change but may skip values. The version is the user's version
+ * after the change (null for deletes), so a consumer can drop changes older than the state it already has.
+ */
+public record UserChange(long seq, Long userId, Operation operation, Long version, Instant changedAt) {
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * A change to record; its sequence number and time are assigned by the database
+     *
+     * @param userId The user ID
+     * @param operation What happened to the user
+     * @param version The user's version after the change, or null for a delete
+     * @return The change
+     */
+    public static UserChange of(Long userId, Operation operation, Long version) {
+        return new UserChange(0, userId, operation, version, null);
+    }
+}
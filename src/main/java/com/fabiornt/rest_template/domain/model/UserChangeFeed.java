@@ -0,0 +1,10 @@
+package com.fabiornt.rest_template.domain.model;
+
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code next} is the {@code since} value for the following request:
+ * the last returned sequence number, or the requested one when nothing changed.
+ */
+public record UserChangeFeed(List<UserChange> changes, long next) {
+}
@@ -0,0 +1,27 @@
+package com.fabiornt.rest_template.domain.model;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Filters on the users collection, bound from the query parameters of {@code GET /api/users}.
+ * Every filter is optional and they are combined with AND; blank values are ignored.
+ *
+ * @param username Username prefix, matched case-insensitively
+ * @param emailDomain Email domain such as {@code example.com}, matched case-insensitively
+ * @param minId Smallest id to include
+ * @param maxId Largest id to include
+ */
+public record UserFilter(String username, String emailDomain, Long minId, Long maxId) {
+
+    /**
+     * Filter matching every user.
+     */
+    public static final UserFilter NONE = new UserFilter(null, null, null, null);
+
+    /**
+     * @return Whether no filter is set, so every user matches
+     */
+    public boolean isEmpty() {
+        return !StringUtils.hasText(username) && !StringUtils.hasText(emailDomain) && minId == null && maxId == null;
+    }
+}
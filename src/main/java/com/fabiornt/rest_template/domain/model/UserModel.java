@@ -30,4 +30,12 @@ public class UserModel extends RepresentationModel<UserModel> {
                 .email(user.getEmail())
                 .build();
     }
+
+    public static UserModel fromView(UserView user) {
+        return UserModel.builder()
+                .id(user.id())
+                .username(user.username())
+                .email(user.email())
+                .build();
+    }
 }
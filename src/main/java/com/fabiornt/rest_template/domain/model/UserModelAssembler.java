@@ -21,4 +21,20 @@ public class UserModelAssembler implements RepresentationModelAssembler<User, Us
 
         return userModel;
     }
+
+    /**
+     * Creates the model of a user read through the projection-based read path
+     *
+     * @param user The user view
+     * @return UserModel with links
+     */
+    public UserModel toModel(UserView user) {
+        UserModel userModel = UserModel.fromView(user);
+
+        for (Link link : LinkBuilder.forUser(user.id())) {
+            userModel.add(link);
+        }
+
+        return userModel;
+    }
 }
@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.domain.model;
+
+/**
+ * Read-only view of a user, selected with a constructor query instead of loading the entity.
+ * It has no password and is never tracked by the persistence context, so it is also what the user cache holds.
+ */
+public record UserView(Long id, String username, String email, Long version) {
+}
@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int size, int maxSize) {
+        super(String.format("Batch of %d items exceeds the maximum of %d", size, maxSize));
+    }
+}
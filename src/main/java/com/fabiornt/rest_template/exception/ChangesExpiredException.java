@@ -0,0 +1,9 @@
+package com.fabiornt.rest_template.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+
+    public ChangesExpiredException(long since, long purgedThrough) {
+        super(String.format("Changes after %d are no longer available (purged through %d); reload the users and "
+                + "continue from the current position", since, purgedThrough));
+    }
+}
@@ -1,8 +1,41 @@
 package com.fabiornt.rest_template.exception;
 
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.exception.ConstraintViolationException;
+
 public class EmailAlreadyExistsException extends RuntimeException {
-    
+
+    /**
+     * Unique constraints on users.email: the index from the Liquibase changelog,
+     * and the constraint PostgreSQL names for tables created with a column-level unique.
+     */
+    private static final Set<String> EMAIL_CONSTRAINTS = Set.of("ux_users_email", "users_email_key");
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
     public EmailAlreadyExistsException(String email) {
         super("Email already exists: " + email);
     }
+
+    /**
+     * Tells whether an exception was caused by the unique constraint on users.email.
+     *
+     * @param ex The exception raised by an insert or update
+     * @return true if the email was already taken
+     */
+    public static boolean isDuplicateEmail(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return EMAIL_CONSTRAINTS.contains(violation.getConstraintName().toLowerCase(Locale.ROOT));
+            }
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                String message = sqlException.getMessage();
+                return message != null && EMAIL_CONSTRAINTS.stream().anyMatch(message::contains);
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class ExportNotReadyException extends RuntimeException {
+
+    public ExportNotReadyException(String jobId, Object status) {
+        super(String.format("Export '%s' has no file to download (status %s)", jobId, status));
+    }
+}
@@ -3,6 +3,8 @@ package com.fabiornt.rest_template.exception;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -10,6 +12,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 import com.fabiornt.rest_template.http.ApiErrorResponse;
 import com.fabiornt.rest_template.http.ResponseBuilder;
@@ -26,6 +29,26 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handle constraint violations raised by the database, e.g. two concurrent requests
+     * inserting the same email. The unique email index is reported like EmailAlreadyExistsException.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        if (EmailAlreadyExistsException.isDuplicateEmail(ex)) {
+            return ResponseBuilder.error(
+                HttpStatus.CONFLICT,
+                "Email already exists",
+                "Email already exists"
+            );
+        }
+        return ResponseBuilder.error(
+            HttpStatus.CONFLICT,
+            "The request conflicts with existing data",
+            "Data integrity violation"
+        );
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
         return ResponseBuilder.error(
@@ -35,6 +58,91 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidRequestParameterException(InvalidRequestParameterException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.BAD_REQUEST,
+            ex.getMessage(),
+            "Bad Request"
+        );
+    }
+
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidImportFileException(InvalidImportFileException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.BAD_REQUEST,
+            ex.getMessage(),
+            "Bad Request"
+        );
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ApiErrorResponse> handleBatchTooLargeException(BatchTooLargeException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.PAYLOAD_TOO_LARGE,
+            ex.getMessage(),
+            "Payload Too Large"
+        );
+    }
+
+    @ExceptionHandler(TooManyExportsException.class)
+    public ResponseEntity<ApiErrorResponse> handleTooManyExportsException(TooManyExportsException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.TOO_MANY_REQUESTS,
+            ex.getMessage(),
+            "Too Many Requests"
+        );
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiErrorResponse> handlePasswordHashingBusyException(PasswordHashingBusyException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.SERVICE_UNAVAILABLE,
+            ex.getMessage(),
+            "Service Unavailable"
+        );
+    }
+
+    @ExceptionHandler(ExportNotReadyException.class)
+    public ResponseEntity<ApiErrorResponse> handleExportNotReadyException(ExportNotReadyException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.CONFLICT,
+            ex.getMessage(),
+            "Export not ready"
+        );
+    }
+
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<ApiErrorResponse> handleChangesExpiredException(ChangesExpiredException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.GONE,
+            ex.getMessage(),
+            "Changes expired"
+        );
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.PRECONDITION_FAILED,
+            ex.getMessage(),
+            "Precondition Failed"
+        );
+    }
+
+    /**
+     * Handle a concurrent update detected by the version check of optimistic locking.
+     * The client should read the resource again and retry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ResponseBuilder.error(
+            HttpStatus.CONFLICT,
+            "The resource was modified by another request",
+            "Conflict"
+        );
+    }
+
     /**
      * Handle validation exceptions and return 422 Unprocessable Entity status
      * This is more appropriate for validation errors than 400 Bad Request
@@ -70,6 +178,14 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handle a client that went away during a streamed or async response, e.g. a closed SSE stream.
+     * Nothing can be written any more, so there is no body.
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleAllExceptions(Exception ex) {
         return ResponseBuilder.error(
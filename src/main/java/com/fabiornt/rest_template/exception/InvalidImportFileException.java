@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
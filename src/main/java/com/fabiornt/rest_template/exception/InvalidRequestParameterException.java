@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class InvalidRequestParameterException extends RuntimeException {
+
+    public InvalidRequestParameterException(String parameterName, Object value) {
+        super(String.format("Invalid value for parameter %s: '%s'", parameterName, value));
+    }
+}
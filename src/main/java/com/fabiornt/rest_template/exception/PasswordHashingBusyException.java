@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(int maxQueued) {
+        super(String.format("Too many passwords are waiting to be hashed (at most %d can wait); try again later", maxQueued));
+    }
+}
@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String resourceName, Object id) {
+        super(String.format("%s with id '%s' was modified by another request", resourceName, id));
+    }
+}
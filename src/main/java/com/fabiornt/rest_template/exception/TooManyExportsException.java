@@ -0,0 +1,8 @@
+package com.fabiornt.rest_template.exception;
+
+public class TooManyExportsException extends RuntimeException {
+
+    public TooManyExportsException(int maxQueued) {
+        super(String.format("Too many export jobs are in progress (at most %d can wait); try again later", maxQueued));
+    }
+}
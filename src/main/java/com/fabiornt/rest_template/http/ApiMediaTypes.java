@@ -0,0 +1,114 @@
+package com.fabiornt.rest_template.http;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Media types the API can produce besides JSON, and the representation a request asks for.
+ */
+public class ApiMediaTypes {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    public static final String APPLICATION_CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Media types of user collections, in order of preference when the client has none
+     */
+    public static final List<MediaType> USER_COLLECTION_TYPES = List.of(MediaType.APPLICATION_JSON, TEXT_CSV,
+            MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /**
+     * Media types of a single user, in order of preference when the client has none
+     */
+    public static final List<MediaType> USER_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /**
+     * Chooses the media type of a user collection from an Accept header, the way the response is negotiated:
+     * the highest quality wins, then the most specific matching range (so {@code application/cbor} beats
+     * {@code *}{@code /*}), then the order of {@link #USER_COLLECTION_TYPES}. A type's quality comes from
+     * the most specific range that includes it, and types with quality 0 are never chosen.
+     *
+     * @param acceptHeader The Accept header from the request, may be null
+     * @return The chosen media type; JSON when the header is missing, invalid or matches nothing
+     */
+    public static MediaType negotiate(String acceptHeader) {
+        return negotiate(acceptHeader, USER_COLLECTION_TYPES);
+    }
+
+    /**
+     * Chooses one of the given media types from an Accept header, like {@link #negotiate(String)}
+     *
+     * @param acceptHeader The Accept header from the request, may be null
+     * @param mediaTypes The media types the resource has, in order of preference
+     * @return The chosen media type; JSON when the header is missing, invalid or matches nothing
+     */
+    public static MediaType negotiate(String acceptHeader, List<MediaType> mediaTypes) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(acceptHeader);
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        int bestSpecificity = -1;
+        for (MediaType candidate : mediaTypes) {
+            MediaType range = null;
+            for (MediaType accepted : acceptable) {
+                if (accepted.includes(candidate) && (range == null || specificity(accepted) > specificity(range))) {
+                    range = accepted;
+                }
+            }
+            if (range == null) {
+                continue;
+            }
+            double quality = range.getQualityValue();
+            int specificity = specificity(range);
+            if (quality > bestQuality || (quality == bestQuality && quality > 0 && specificity > bestSpecificity)) {
+                best = candidate;
+                bestQuality = quality;
+                bestSpecificity = specificity;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns a short name of a media type of users:
+     * {@code csv}, {@code cbor}, {@code smile} or {@code json} (the default).
+     * Used to give each representation its own ETag.
+     *
+     * @param mediaType The media type chosen by {@link #negotiate(String)}
+     * @return Name of the representation
+     */
+    public static String representation(MediaType mediaType) {
+        if (TEXT_CSV.equalsTypeAndSubtype(mediaType)) {
+            return "csv";
+        }
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType)) {
+            return "cbor";
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(mediaType)) {
+            return "smile";
+        }
+        return "json";
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+}
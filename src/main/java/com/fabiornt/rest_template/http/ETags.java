@@ -0,0 +1,109 @@
+package com.fabiornt.rest_template.http;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.exception.PreconditionFailedException;
+
+/**
+ * Utility class for the ETags of user resources and for evaluating conditional request headers.
+ *
+ * <p>ETags are derived from the {@code @Version} of users, so they can be checked before any model
+ * is built or serialized: a user's ETag is {@code "<id>-<version>-<variant>"}, and a collection's ETag comes from
+ * the version of the users table, which the database bumps in every transaction that writes users.
+ * The variant names the representation (json, cbor, ...), since a strong ETag is only shared by identical bytes.
+ */
+public class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    /**
+     * Creates the ETag of a single user
+     *
+     * @param user The user
+     * @param variant Representation of the user (e.g. json or cbor)
+     * @return Quoted strong ETag
+     */
+    public static String forUser(User user, String variant) {
+        return "\"" + user.getId() + "-" + user.getVersion() + "-" + variant + "\"";
+    }
+
+    /**
+     * Creates the ETag of a single user read as a view
+     *
+     * @param user The user view
+     * @param variant Representation of the user (e.g. json or cbor)
+     * @return Quoted strong ETag, the same as for the entity
+     */
+    public static String forUser(UserView user, String variant) {
+        return "\"" + user.id() + "-" + user.version() + "-" + variant + "\"";
+    }
+
+    /**
+     * Creates the ETag of a users collection
+     *
+     * @param version Version of the users table
+     * @param variant Representation of the collection (e.g. json or csv), so each format gets its own ETag
+     * @return Quoted strong ETag
+     */
+    public static String forUsers(long version, String variant) {
+        return "\"users-" + version + "-" + variant + "\"";
+    }
+
+    /**
+     * Evaluates an If-None-Match header with weak comparison
+     *
+     * @param ifNoneMatch The header value, may be null
+     * @param eTag The current ETag of the resource
+     * @return true if the client's copy is current and a 304 can be sent
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = stripWeak(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the user version a client expects from an If-Match header.
+     * The ETag of any representation of the user is accepted, since they all name the same version.
+     * Weak ETags never match, as If-Match uses strong comparison.
+     *
+     * @param ifMatch The header value, may be null
+     * @param id The id of the user being modified
+     * @return The expected version, or null when any version is accepted (no header or {@code *})
+     * @throws PreconditionFailedException if no ETag in the header refers to the user
+     */
+    public static Long expectedUserVersion(String ifMatch, Long id) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return null;
+            }
+            if (candidate.startsWith(prefix) && candidate.endsWith("\"") && candidate.length() > prefix.length() + 1) {
+                String versionAndVariant = candidate.substring(prefix.length(), candidate.length() - 1);
+                int variantStart = versionAndVariant.indexOf('-');
+                try {
+                    return Long.valueOf(variantStart < 0 ? versionAndVariant : versionAndVariant.substring(0, variantStart));
+                } catch (NumberFormatException ex) {
+                    // Not one of our ETags; it can't match
+                }
+            }
+        }
+        throw new PreconditionFailedException("User", id);
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
@@ -0,0 +1,126 @@
+package com.fabiornt.rest_template.http;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Utility class for responses that send a file from local disk, with support for {@code Range} requests.
+ *
+ * <p>On Tomcat the file is handed to the connector's sendfile support, which copies it to the socket with
+ * {@code FileChannel.transferTo} instead of through the servlet output stream. Elsewhere, and for
+ * multi-range requests, the file is returned as a {@link Resource} and Spring MVC writes the requested
+ * ranges. A range that starts past the end of the file gets 416 Range Not Satisfiable. A Range sent with an
+ * {@code If-Range} that doesn't match the ETag is ignored and the whole file is sent, so a client resuming a
+ * download never splices parts of two different files.
+ */
+public class FileResponses {
+
+    private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Creates a download response for a file
+     *
+     * @param file The file to send; it must not change while it can be downloaded
+     * @param mediaType The content type of the file
+     * @param fileName The file name offered to the client
+     * @param eTag The ETag identifying this version of the file
+     * @param request The current request, checked for Range and If-Range headers and sendfile support
+     * @return ResponseEntity with the whole file or the requested range
+     * @throws IOException if the file can't be read
+     */
+    public static ResponseEntity<Resource> download(Path file, MediaType mediaType, String fileName,
+                                                    String eTag, HttpServletRequest request) throws IOException {
+        long length = Files.size(file);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(mediaType);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(eTag);
+
+        List<HttpRange> ranges = List.of();
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        boolean rangeApplies = rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), eTag);
+        if (rangeApplies) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+                for (HttpRange range : ranges) {
+                    if (range.getRangeStart(length) >= length || range.getRangeEnd(length) < range.getRangeStart(length)) {
+                        throw new IllegalArgumentException("Unsatisfiable range " + range);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Malformed, or starting beyond the end of the file
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+        }
+
+        if (length > 0 && ranges.size() <= 1 && canSendfile(request)) {
+            return sendfile(file, length, ranges.isEmpty() ? null : ranges.get(0), headers, request);
+        }
+        if (rangeHeader != null && !rangeApplies) {
+            // Spring MVC applies the Range header to any Resource body except an InputStreamResource
+            headers.setContentLength(length);
+            return ResponseEntity.ok().headers(headers).body(new InputStreamResource(Files.newInputStream(file)));
+        }
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(file));
+    }
+
+    /**
+     * Checks an If-Range header against the file's ETag. Only a strong match counts; a weak ETag or a
+     * date never matches, as the file is served without a Last-Modified header.
+     */
+    private static boolean ifRangeMatches(String ifRange, String eTag) {
+        return ifRange == null || ifRange.trim().equals(eTag);
+    }
+
+    /**
+     * Like Tomcat's DefaultServlet, only uses sendfile when no filter has wrapped the request.
+     * The response is always wrapped by Spring MVC's async support, which doesn't touch the body,
+     * and none of the API's filters wrap it to read the body.
+     */
+    private static boolean canSendfile(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))
+                && request.getClass().getName().equals("org.apache.catalina.connector.RequestFacade");
+    }
+
+    /**
+     * Lets Tomcat send the whole file, or a single range of it, straight from disk.
+     */
+    private static ResponseEntity<Resource> sendfile(Path file, long length, HttpRange range,
+                                                     HttpHeaders headers, HttpServletRequest request) {
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+        // Tomcat's end position is exclusive
+        request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+        headers.setContentLength(end - start + 1);
+        return ResponseEntity.status(status).headers(headers).build();
+    }
+}
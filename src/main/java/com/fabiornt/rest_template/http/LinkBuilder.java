@@ -1,20 +1,49 @@
 package com.fabiornt.rest_template.http;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
 import com.fabiornt.rest_template.controller.UserController;
+import com.fabiornt.rest_template.domain.model.EstimatedPage;
+import com.fabiornt.rest_template.domain.model.UserFilter;
+import com.fabiornt.rest_template.util.CursorCodec;
 
 /**
  * Utility class for building HATEOAS links for API responses.
  * Centralizes link creation logic for consistency across the API.
+ *
+ * <p>Links are expanded from precomputed templates instead of {@code linkTo(methodOn(...))}:
+ * the base URI (scheme, host, port and context path, already adjusted for forwarded headers)
+ * is resolved once per request, the templates once per base URI, and each link is then
+ * built with plain string concatenation. The produced hrefs are the same as before.
  */
 public class LinkBuilder {
 
+    private static final String USERS_PATH = UserController.class.getAnnotation(RequestMapping.class).value()[0];
+
+    private static final String TEMPLATES_ATTRIBUTE = LinkBuilder.class.getName() + ".TEMPLATES";
+
+    /**
+     * Upper bound for cached base URIs, since the Host header is client-controlled.
+     */
+    private static final int MAX_CACHED_BASE_URIS = 64;
+
+    private static final Map<String, UserLinkTemplates> TEMPLATES_BY_BASE_URI = new ConcurrentHashMap<>();
+
     /**
      * Creates standard links for a user resource
      *
@@ -22,9 +51,10 @@ public class LinkBuilder {
      * @return Array of links for the user resource
      */
     public static Link[] forUser(Long userId) {
+        UserLinkTemplates templates = templates();
         return new Link[] {
-            linkTo(methodOn(UserController.class).getUserById(userId)).withSelfRel(),
-            linkTo(methodOn(UserController.class).getAllUsers(0, 10, "application/json")).withRel("users"),
+            Link.of(templates.user(userId), IanaLinkRelations.SELF),
+            Link.of(templates.page(0, 10, null, ""), LinkRelation.of("users")),
         };
     }
 
@@ -34,9 +64,10 @@ public class LinkBuilder {
      * @return Array of links for the users collection
      */
     public static Link[] forUsers() {
+        UserLinkTemplates templates = templates();
         return new Link[] {
-            linkTo(methodOn(UserController.class).getAllUsers(0, 10, "application/json")).withSelfRel(),
-            linkTo(methodOn(UserController.class).createUser(null)).withRel("create")
+            Link.of(templates.page(0, 10, null, ""), IanaLinkRelations.SELF),
+            Link.of(templates.users(), LinkRelation.of("create"))
         };
     }
 
@@ -70,36 +101,199 @@ public class LinkBuilder {
     }
 
     /**
-     * Creates pagination links for a paginated collection of users
+     * Creates pagination links for a paginated collection of users.
+     * The {@code last} link is only included when the exact total is known.
      *
-     * @param page The Spring Data Page
+     * @param page The page number
      * @param size The page size
+     * @param count The count strategy requested by the client, carried along in the links
+     * @param pageData The Spring Data Page or Slice
      * @return Array of pagination links
      */
-    public static Link[] forPaginatedUsers(int page, int size, Page<?> pageData) {
-        // Base links
-        Link selfLink = linkTo(methodOn(UserController.class).getAllUsers(page, size, null)).withSelfRel();
-        Link createLink = linkTo(methodOn(UserController.class).createUser(null)).withRel("create");
+    public static Link[] forPaginatedUsers(int page, int size, String count, Slice<?> pageData) {
+        return forPaginatedUsers(page, size, count, UserFilter.NONE, null, pageData);
+    }
+
+    /**
+     * Creates pagination links for a filtered and sorted collection of users.
+     * The {@code last} link is only included when the exact total is known.
+     *
+     * @param page The page number
+     * @param size The page size
+     * @param count The count strategy requested by the client, carried along in the links
+     * @param filter The filters requested by the client, carried along in the links
+     * @param sort The sort requested by the client, carried along in the links
+     * @param pageData The Spring Data Page or Slice
+     * @return Array of pagination links
+     */
+    public static Link[] forPaginatedUsers(int page, int size, String count, UserFilter filter, String sort, Slice<?> pageData) {
+        UserLinkTemplates templates = templates();
+        String query = query(filter, sort);
+        List<Link> links = new ArrayList<>(6);
 
-        // Pagination links
-        Link firstLink = linkTo(methodOn(UserController.class).getAllUsers(0, size, null)).withRel("first");
-        Link lastLink = linkTo(methodOn(UserController.class).getAllUsers(pageData.getTotalPages() - 1, size, null)).withRel("last");
+        // Base links
+        links.add(Link.of(templates.page(page, size, count, query), IanaLinkRelations.SELF));
 
-        // Add next and previous links if applicable
-        if (pageData.hasNext()) {
-            Link nextLink = linkTo(methodOn(UserController.class).getAllUsers(page + 1, size, null)).withRel("next");
+        // Pagination links, omitted when there is only one page
+        if (pageData.hasNext() || pageData.hasPrevious()) {
+            links.add(Link.of(templates.page(0, size, count, query), IanaLinkRelations.FIRST));
             if (pageData.hasPrevious()) {
-                Link prevLink = linkTo(methodOn(UserController.class).getAllUsers(page - 1, size, null)).withRel("prev");
-                return new Link[] { selfLink, firstLink, prevLink, nextLink, lastLink, createLink };
-            } else {
-                return new Link[] { selfLink, firstLink, nextLink, lastLink, createLink };
+                links.add(Link.of(templates.page(page - 1, size, count, query), IanaLinkRelations.PREV));
+            }
+            if (pageData.hasNext()) {
+                links.add(Link.of(templates.page(page + 1, size, count, query), IanaLinkRelations.NEXT));
             }
-        } else if (pageData.hasPrevious()) {
-            Link prevLink = linkTo(methodOn(UserController.class).getAllUsers(page - 1, size, null)).withRel("prev");
-            return new Link[] { selfLink, firstLink, prevLink, lastLink, createLink };
-        } else {
-            // Only one page
-            return new Link[] { selfLink, createLink };
+            if (pageData instanceof Page<?> counted && !(pageData instanceof EstimatedPage<?>)) {
+                links.add(Link.of(templates.page(counted.getTotalPages() - 1, size, count, query), IanaLinkRelations.LAST));
+            }
+        }
+
+        links.add(Link.of(templates.users(), LinkRelation.of("create")));
+        return links.toArray(new Link[0]);
+    }
+
+    /**
+     * Creates links for a keyset (cursor) paginated collection of users.
+     * Cursor links carry only {@code after} and {@code size}, so no page number or total is needed.
+     *
+     * @param after The cursor of the current page
+     * @param size The page size
+     * @param nextCursor The cursor of the next page, or null when this is the last page
+     * @return Array of cursor pagination links
+     */
+    public static Link[] forCursorUsers(String after, int size, String nextCursor) {
+        return forCursorUsers(after, size, UserFilter.NONE, nextCursor);
+    }
+
+    /**
+     * Creates links for a filtered, keyset (cursor) paginated collection of users.
+     * Cursor links carry {@code after}, {@code size} and the filters, so no page number or total is needed.
+     * The self link carries the cursor re-encoded from its id, never the raw request value.
+     *
+     * @param after The cursor of the current page, already validated
+     * @param size The page size
+     * @param filter The filters requested by the client, carried along in the links
+     * @param nextCursor The cursor of the next page, or null when this is the last page
+     * @return Array of cursor pagination links
+     */
+    public static Link[] forCursorUsers(String after, int size, UserFilter filter, String nextCursor) {
+        UserLinkTemplates templates = templates();
+        String query = query(filter, null);
+        Link selfLink = Link.of(templates.cursor(CursorCodec.encode(CursorCodec.decode(after)), size, query),
+                IanaLinkRelations.SELF);
+        Link firstLink = Link.of(templates.cursor(CursorCodec.START, size, query), IanaLinkRelations.FIRST);
+        Link createLink = Link.of(templates.users(), LinkRelation.of("create"));
+
+        if (nextCursor != null) {
+            Link nextLink = Link.of(templates.cursor(nextCursor, size, query), IanaLinkRelations.NEXT);
+            return new Link[] { selfLink, firstLink, nextLink, createLink };
+        }
+        return new Link[] { selfLink, firstLink, createLink };
+    }
+
+    /**
+     * Creates links for a user export job
+     *
+     * @param jobId The export job ID
+     * @param downloadable Whether the export file is ready to download
+     * @return Array of links for the export job
+     */
+    public static Link[] forExportJob(String jobId, boolean downloadable) {
+        UserLinkTemplates templates = templates();
+        Link selfLink = Link.of(templates.export(jobId), IanaLinkRelations.SELF);
+        if (downloadable) {
+            return new Link[] { selfLink, Link.of(templates.exportFile(jobId), LinkRelation.of("download")) };
+        }
+        return new Link[] { selfLink };
+    }
+
+    /**
+     * Builds the query string suffix carrying the filters and sort of a collection request,
+     * e.g. {@code &username=jo&sort=email}, or an empty string when there are none.
+     */
+    private static String query(UserFilter filter, String sort) {
+        if (filter.isEmpty() && sort == null) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        appendParam(query, "username", filter.username());
+        appendParam(query, "emailDomain", filter.emailDomain());
+        appendParam(query, "minId", filter.minId());
+        appendParam(query, "maxId", filter.maxId());
+        appendParam(query, "sort", sort);
+        return query.toString();
+    }
+
+    private static void appendParam(StringBuilder query, String name, Object value) {
+        if (value != null && !value.toString().isBlank()) {
+            query.append('&').append(name).append('=')
+                .append(UriUtils.encodeQueryParam(value.toString(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the link templates for the base URI of the current request.
+     * They are kept in a request attribute, so the base URI is only resolved once per request.
+     */
+    private static UserLinkTemplates templates() {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        UserLinkTemplates templates = (UserLinkTemplates) attributes.getAttribute(TEMPLATES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (templates == null) {
+            String baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            templates = TEMPLATES_BY_BASE_URI.get(baseUri);
+            if (templates == null) {
+                templates = new UserLinkTemplates(baseUri);
+                if (TEMPLATES_BY_BASE_URI.size() < MAX_CACHED_BASE_URIS) {
+                    TEMPLATES_BY_BASE_URI.putIfAbsent(baseUri, templates);
+                }
+            }
+            attributes.setAttribute(TEMPLATES_ATTRIBUTE, templates, RequestAttributes.SCOPE_REQUEST);
+        }
+        return templates;
+    }
+
+    /**
+     * URI templates of the user endpoints, resolved against one base URI.
+     */
+    private static final class UserLinkTemplates {
+
+        private final String users;
+        private final String userPrefix;
+        private final String pagePrefix;
+        private final String cursorPrefix;
+        private final String exportPrefix;
+
+        private UserLinkTemplates(String baseUri) {
+            this.users = baseUri + USERS_PATH;
+            this.userPrefix = users + "/";
+            this.pagePrefix = users + "?page=";
+            this.cursorPrefix = users + "?after=";
+            this.exportPrefix = users + "/exports/";
+        }
+
+        String users() {
+            return users;
+        }
+
+        String user(Long id) {
+            return userPrefix + id;
+        }
+
+        String page(int page, int size, String count, String query) {
+            String href = pagePrefix + page + "&size=" + size;
+            return (count != null ? href + "&count=" + UriUtils.encodeQueryParam(count, StandardCharsets.UTF_8) : href) + query;
+        }
+
+        String cursor(String cursor, int size, String query) {
+            return cursorPrefix + cursor + "&size=" + size + query;
+        }
+
+        String export(String jobId) {
+            return exportPrefix + jobId;
+        }
+
+        String exportFile(String jobId) {
+            return exportPrefix + jobId + "/file";
         }
     }
 }
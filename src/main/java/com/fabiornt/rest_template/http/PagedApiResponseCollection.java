@@ -4,9 +4,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 
+import com.fabiornt.rest_template.domain.model.EstimatedPage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -31,15 +35,16 @@ public class PagedApiResponseCollection<T> {
     private LocalDateTime timestamp = LocalDateTime.now();
     
     /**
-     * Creates a PagedApiResponseCollection from a Spring Data Page.
+     * Creates a PagedApiResponseCollection from a Spring Data Page or Slice.
+     * Totals are only included when the page knows them.
      * 
      * @param <T> Type of the data
-     * @param page The Spring Data Page
+     * @param page The Spring Data Page or Slice
      * @param links HATEOAS links
      * @param status HTTP status
      * @return PagedApiResponseCollection
      */
-    public static <T> PagedApiResponseCollection<T> fromPage(Page<?> page, List<T> data, Link[] links, HttpStatus status) {
+    public static <T> PagedApiResponseCollection<T> fromPage(Slice<?> page, List<T> data, Link[] links, HttpStatus status) {
         return PagedApiResponseCollection.<T>builder()
                 .data(data)
                 .links(links)
@@ -50,6 +55,8 @@ public class PagedApiResponseCollection<T> {
     
     /**
      * Metadata for pagination.
+     * {@code totalElements} and {@code totalPages} are omitted when the total was not counted,
+     * and {@code approximate} is set when they come from an estimate.
      */
     @Data
     @Builder
@@ -58,26 +65,36 @@ public class PagedApiResponseCollection<T> {
     public static class PageMetadata {
         private int page;
         private int size;
-        private long totalElements;
-        private int totalPages;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Long totalElements;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer totalPages;
         private boolean first;
         private boolean last;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Boolean approximate;
         
         /**
-         * Creates PageMetadata from a Spring Data Page.
+         * Creates PageMetadata from a Spring Data Page or Slice.
          * 
-         * @param page The Spring Data Page
+         * @param page The Spring Data Page or Slice
          * @return PageMetadata
          */
-        public static PageMetadata fromPage(Page<?> page) {
-            return PageMetadata.builder()
+        public static PageMetadata fromPage(Slice<?> page) {
+            PageMetadataBuilder builder = PageMetadata.builder()
                     .page(page.getNumber())
                     .size(page.getSize())
-                    .totalElements(page.getTotalElements())
-                    .totalPages(page.getTotalPages())
                     .first(page.isFirst())
-                    .last(page.isLast())
-                    .build();
+                    .last(page.isLast());
+
+            if (page instanceof Page<?> counted) {
+                builder.totalElements(counted.getTotalElements())
+                        .totalPages(counted.getTotalPages());
+            }
+            if (page instanceof EstimatedPage<?>) {
+                builder.approximate(true);
+            }
+            return builder.build();
         }
     }
 }
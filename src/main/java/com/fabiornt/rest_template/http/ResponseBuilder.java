@@ -1,10 +1,13 @@
 package com.fabiornt.rest_template.http;
 
+import java.net.URI;
 import java.util.List;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 public class ResponseBuilder {
@@ -43,6 +46,30 @@ public class ResponseBuilder {
         );
     }
 
+    /**
+     * Creates a success response with data and its ETag
+     * Used for single resources that support conditional requests.
+     * The representation depends on the Accept header, so the response varies by it.
+     *
+     * @param <T> Type of the data
+     * @param data The data to include in the response
+     * @param eTag The ETag of the representation
+     * @param contentType The media type the ETag was computed for, set as Content-Type
+     * @return ResponseEntity with ApiResponse
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> success(T data, String eTag, MediaType contentType) {
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .eTag(eTag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(
+                ApiResponse.<T>builder()
+                    .data(data)
+                    .status(HttpStatus.OK)
+                    .build()
+            );
+    }
+
     /**
      * Creates a success response with a collection of data and links
      *
@@ -82,12 +109,12 @@ public class ResponseBuilder {
      * Creates a paginated response with data and links
      *
      * @param <T> Type of the data
-     * @param page The Spring Data Page
+     * @param page The Spring Data Page or Slice
      * @param data The collection of data to include in the response
      * @param links HATEOAS links to include
      * @return ResponseEntity with PagedApiResponseCollection
      */
-    public static <T> ResponseEntity<PagedApiResponseCollection<T>> pagedCollection(Page<?> page, List<T> data, Link... links) {
+    public static <T> ResponseEntity<PagedApiResponseCollection<T>> pagedCollection(Slice<?> page, List<T> data, Link... links) {
         return ResponseEntity.ok(
             PagedApiResponseCollection.fromPage(page, data, links, HttpStatus.OK)
         );
@@ -98,11 +125,11 @@ public class ResponseBuilder {
      * Used when the data models already contain links
      *
      * @param <T> Type of the data
-     * @param page The Spring Data Page
+     * @param page The Spring Data Page or Slice
      * @param data The collection of data to include in the response
      * @return ResponseEntity with PagedApiResponseCollection
      */
-    public static <T> ResponseEntity<PagedApiResponseCollection<T>> pagedCollection(Page<?> page, List<T> data) {
+    public static <T> ResponseEntity<PagedApiResponseCollection<T>> pagedCollection(Slice<?> page, List<T> data) {
         return ResponseEntity.ok(
             PagedApiResponseCollection.fromPage(page, data, new Link[0], HttpStatus.OK)
         );
@@ -163,6 +190,58 @@ public class ResponseBuilder {
         );
     }
 
+    /**
+     * Creates an 'accepted' response for work that continues in the background
+     *
+     * @param <T> Type of the data
+     * @param data The data describing the background work
+     * @param location URI where the progress of the work can be followed
+     * @return ResponseEntity with ApiResponse
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> accepted(T data, URI location) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).location(location).body(
+            ApiResponse.<T>builder()
+                .data(data)
+                .status(HttpStatus.ACCEPTED)
+                .build()
+        );
+    }
+
+    /**
+     * Creates a 'not modified' response, sent instead of the body when the client's ETag is current
+     *
+     * @param <T> Type of the body the response replaces
+     * @param eTag The current ETag of the resource
+     * @return ResponseEntity with no body
+     */
+    public static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * Adds an ETag to an existing content-negotiated response, which therefore varies by Accept.
+     * The negotiated media type is set as Content-Type unless the response already has one,
+     * so the body is written in the representation the ETag was computed for.
+     *
+     * @param <T> Type of the body
+     * @param response The response
+     * @param eTag The ETag of the returned representation
+     * @param contentType The media type the ETag was computed for
+     * @return ResponseEntity with the same status, headers and body plus the ETag
+     */
+    public static <T> ResponseEntity<T> withETag(ResponseEntity<T> response, String eTag, MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        if (headers.getContentType() == null) {
+            headers.setContentType(contentType);
+        }
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(headers)
+            .eTag(eTag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(response.getBody());
+    }
+
     /**
      * Creates a 'no content' response
      *
@@ -0,0 +1,321 @@
+package com.fabiornt.rest_template.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.http.PagedApiResponseCollection.PageMetadata;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.std.EnumSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+/**
+ * Writes the JSON envelopes of user responses ({@link ApiResponse}, {@link ApiResponseCollection}
+ * and {@link PagedApiResponseCollection} of {@link UserModel}) straight to the response stream with a
+ * {@link JsonGenerator}, instead of going through Jackson's bean serializers.
+ *
+ * <p>Field names are pre-encoded and the generator comes from the application's ObjectMapper, which
+ * recycles its output buffers, so a page costs little more than the bytes written. The output is
+ * byte-for-byte the same as Jackson's. Any other body, an envelope holding anything but
+ * {@link UserModel}s, or an ObjectMapper configured to name properties or format dates, enums or nulls
+ * differently, or with mixins or custom serializers for these types, is handed to the ObjectMapper unchanged.
+ */
+public class UserJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString LINKS = new SerializedString("links");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString METADATA = new SerializedString("metadata");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString REL = new SerializedString("rel");
+    private static final SerializableString HREF = new SerializedString("href");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializableString FIRST = new SerializedString("first");
+    private static final SerializableString LAST = new SerializedString("last");
+    private static final SerializableString APPROXIMATE = new SerializedString("approximate");
+
+    /**
+     * Types the fast path writes itself, which Jackson must serialize as plain beans for the output to match
+     */
+    private static final List<Class<?>> BEAN_TYPES = List.of(ApiResponse.class, ApiResponseCollection.class,
+            PagedApiResponseCollection.class, PageMetadata.class, UserModel.class, Link.class);
+
+    private final ObjectMapper objectMapper;
+    private final boolean compatible;
+
+    public UserJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.compatible = isCompatible(objectMapper);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ApiResponse.class || clazz == ApiResponseCollection.class || clazz == PagedApiResponseCollection.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        writeJson(body, StreamUtils.nonClosing(outputMessage.getBody()));
+    }
+
+    /**
+     * Writes a response body as JSON
+     *
+     * @param body The response body
+     * @param out Destination of the JSON; flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Object body, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            if (!compatible) {
+                objectMapper.writeValue(generator, body);
+            } else if (body instanceof ApiResponse<?> response && response.getData() instanceof UserModel user
+                    && user.getClass() == UserModel.class) {
+                writeResponse(generator, response, user);
+            } else if (body instanceof ApiResponseCollection<?> collection && isUserList(collection.getData())) {
+                writeCollection(generator, collection);
+            } else if (body instanceof PagedApiResponseCollection<?> paged && isUserList(paged.getData())) {
+                writePagedCollection(generator, paged);
+            } else {
+                objectMapper.writeValue(generator, body);
+            }
+        }
+    }
+
+    private void writeResponse(JsonGenerator generator, ApiResponse<?> response, UserModel user) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(DATA);
+        writeUser(generator, user);
+        writeStatus(generator, response.getStatus());
+        writeTimestamp(generator, response.getTimestamp());
+        generator.writeEndObject();
+    }
+
+    private void writeCollection(JsonGenerator generator, ApiResponseCollection<?> collection) throws IOException {
+        generator.writeStartObject();
+        writeUsers(generator, collection.getData());
+        writeLinks(generator, collection.getLinks());
+        writeStatus(generator, collection.getStatus());
+        writeTimestamp(generator, collection.getTimestamp());
+        generator.writeEndObject();
+    }
+
+    private void writePagedCollection(JsonGenerator generator, PagedApiResponseCollection<?> paged) throws IOException {
+        generator.writeStartObject();
+        writeUsers(generator, paged.getData());
+        writeLinks(generator, paged.getLinks());
+        writeStatus(generator, paged.getStatus());
+        generator.writeFieldName(METADATA);
+        writeMetadata(generator, paged.getMetadata());
+        writeTimestamp(generator, paged.getTimestamp());
+        generator.writeEndObject();
+    }
+
+    private void writeUsers(JsonGenerator generator, List<?> users) throws IOException {
+        generator.writeFieldName(DATA);
+        if (users == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (Object user : users) {
+            writeUser(generator, (UserModel) user);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeUser(JsonGenerator generator, UserModel user) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (user.getId() != null) {
+            generator.writeNumber(user.getId());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(USERNAME);
+        generator.writeString(user.getUsername());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(user.getEmail());
+        generator.writeFieldName(LINKS);
+        generator.writeStartArray();
+        for (Link link : user.getLinks()) {
+            writeLink(generator, link);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeLinks(JsonGenerator generator, Link[] links) throws IOException {
+        generator.writeFieldName(LINKS);
+        if (links == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (Link link : links) {
+            writeLink(generator, link);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeLink(JsonGenerator generator, Link link) throws IOException {
+        // Links built by LinkBuilder only have rel and href; anything richer goes through Jackson
+        if (link == null || link.getHreflang() != null || link.getMedia() != null || link.getTitle() != null
+                || link.getType() != null || link.getDeprecation() != null || link.getProfile() != null
+                || link.getName() != null) {
+            objectMapper.writeValue(generator, link);
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(REL);
+        generator.writeString(link.getRel().value());
+        generator.writeFieldName(HREF);
+        generator.writeString(link.getHref());
+        generator.writeEndObject();
+    }
+
+    private void writeMetadata(JsonGenerator generator, PageMetadata metadata) throws IOException {
+        if (metadata == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(PAGE);
+        generator.writeNumber(metadata.getPage());
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(metadata.getSize());
+        if (metadata.getTotalElements() != null) {
+            generator.writeFieldName(TOTAL_ELEMENTS);
+            generator.writeNumber(metadata.getTotalElements());
+        }
+        if (metadata.getTotalPages() != null) {
+            generator.writeFieldName(TOTAL_PAGES);
+            generator.writeNumber(metadata.getTotalPages());
+        }
+        generator.writeFieldName(FIRST);
+        generator.writeBoolean(metadata.isFirst());
+        generator.writeFieldName(LAST);
+        generator.writeBoolean(metadata.isLast());
+        if (metadata.getApproximate() != null) {
+            generator.writeFieldName(APPROXIMATE);
+            generator.writeBoolean(metadata.getApproximate());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStatus(JsonGenerator generator, HttpStatus status) throws IOException {
+        generator.writeFieldName(STATUS);
+        if (status != null) {
+            generator.writeString(status.name());
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator generator, LocalDateTime timestamp) throws IOException {
+        generator.writeFieldName(TIMESTAMP);
+        if (timestamp != null) {
+            // Same format as Jackson's LocalDateTimeSerializer with WRITE_DATES_AS_TIMESTAMPS disabled
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp));
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    /**
+     * The fast path writes what Jackson writes with Spring Boot's defaults. Settings that change
+     * property names or the format of dates, enums or null fields, mixins, and serializers other than
+     * Jackson's own for the written types send every body through the ObjectMapper instead.
+     */
+    private static boolean isCompatible(ObjectMapper objectMapper) {
+        JsonInclude.Include inclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+        return !objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                && !objectMapper.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS)
+                && objectMapper.getPropertyNamingStrategy() == null
+                && usesDefaultSerializers(objectMapper);
+    }
+
+    private static boolean usesDefaultSerializers(ObjectMapper objectMapper) {
+        SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+        try {
+            for (Class<?> type : BEAN_TYPES) {
+                if (provider.findValueSerializer(type).getClass() != BeanSerializer.class || hasMixIn(objectMapper, type)) {
+                    return false;
+                }
+            }
+            return provider.findValueSerializer(LocalDateTime.class).getClass() == LocalDateTimeSerializer.class
+                    && provider.findValueSerializer(HttpStatus.class).getClass() == EnumSerializer.class;
+        } catch (JsonMappingException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Modules register mixins for their own types, so only those applying to a written type or its supertypes count
+     */
+    private static boolean hasMixIn(ObjectMapper objectMapper, Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (objectMapper.findMixInClassFor(current) != null) {
+                return true;
+            }
+        }
+        for (Class<?> implemented : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            if (objectMapper.findMixInClassFor(implemented) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUserList(List<?> data) {
+        if (data == null) {
+            return true;
+        }
+        for (Object item : data) {
+            if (item == null || item.getClass() != UserModel.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package com.fabiornt.rest_template.loadshedding;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight, adapting the limit to observed latency with AIMD
+ * (additive increase, multiplicative decrease).
+ *
+ * <p>A request slower than the latency threshold means a downstream resource, usually the connection pool,
+ * is saturated: the limit is multiplied by the backoff ratio. A fast request while at least half the limit
+ * is in use means there may be headroom: the limit grows by one. The limit stays within {@code [min, max]}.
+ * All state is held in atomics, so neither acquiring nor releasing takes a lock.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+    }
+
+    /**
+     * Takes a slot if fewer requests than the limit are in flight
+     *
+     * @return Whether the request may proceed; if so, {@link #release(long)} must be called when it completes
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a completed request and adjusts the limit to its latency
+     *
+     * @param latencyNanos How long the request took
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    /**
+     * Frees the slot of a request whose latency says nothing about load, e.g. one that continues asynchronously
+     */
+    public void releaseUnmeasured() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return The current concurrency limit
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * @return Number of requests holding a slot
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
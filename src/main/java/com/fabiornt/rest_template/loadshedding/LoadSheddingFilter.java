@@ -0,0 +1,162 @@
+package com.fabiornt.rest_template.loadshedding;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fabiornt.rest_template.http.ApiErrorResponse;
+import com.fabiornt.rest_template.http.ResponseBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects API requests early instead of letting them queue for database connections.
+ *
+ * <p>Requests from a client that exceeds its rate get 429 Too Many Requests, and requests beyond the
+ * adaptive concurrency limit of {@link AimdConcurrencyLimiter} get 503 Service Unavailable. Both carry
+ * {@code Retry-After} and the usual {@link ApiErrorResponse} body, and cost no database work.
+ *
+ * <p>Clients are identified by their remote address. Behind a proxy that is the proxy's address unless
+ * {@code server.forward-headers-strategy} makes the container take it from the forwarded headers. Each gets a {@link TokenBucket} in a bounded Caffeine
+ * cache; buckets idle long enough to be full again are dropped, so the cache only holds active clients.
+ * Long-running streaming paths are excluded, since their duration says nothing about load. Bulk and lookup paths
+ * take a slot like any request, but their latency grows with the number of items and is not fed back into the
+ * limit, so a few large batches don't shrink it for everyone else.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AimdConcurrencyLimiter limiter;
+    private final Cache<String, TokenBucket> buckets;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final Duration retryAfter;
+    private final List<String> excludedPaths;
+    private final List<String> unmeasuredPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+    private final Counter concurrencyRejections;
+    private final Counter rateRejections;
+
+    /**
+     * @param limiter Concurrency limiter, or null to disable load shedding
+     * @param requestsPerSecond Sustained request rate per client, or 0 to disable rate limiting
+     * @param burst Requests a client can make at once after a quiet period
+     * @param maxClients Maximum number of clients whose buckets are kept
+     * @param retryAfter Retry-After sent when the concurrency limit is reached
+     * @param excludedPaths Ant patterns of paths that are never limited
+     * @param unmeasuredPaths Ant patterns of paths that are limited but whose latency doesn't adjust the limit
+     * @param objectMapper Writes the error body
+     * @param meterRegistry Registry for the {@code api.load.shed} counters
+     */
+    public LoadSheddingFilter(AimdConcurrencyLimiter limiter, double requestsPerSecond, int burst, long maxClients,
+                              Duration retryAfter, List<String> excludedPaths, List<String> unmeasuredPaths,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.buckets = requestsPerSecond > 0
+                ? Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    // An idle bucket is full again after burst / rate seconds and can be recreated
+                    .expireAfterAccess(Duration.ofNanos((long) (burst / requestsPerSecond * 1_000_000_000L)).plusSeconds(1))
+                    .build()
+                : null;
+        this.retryAfter = retryAfter;
+        this.excludedPaths = excludedPaths;
+        this.unmeasuredPaths = unmeasuredPaths;
+        this.objectMapper = objectMapper;
+        this.concurrencyRejections = Counter.builder("api.load.shed").tag("reason", "concurrency")
+                .description("Requests rejected by load shedding").register(meterRegistry);
+        this.rateRejections = Counter.builder("api.load.shed").tag("reason", "rate")
+                .description("Requests rejected by load shedding").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        return matches(excludedPaths, request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (buckets != null) {
+            long now = System.nanoTime();
+            long waitNanos = buckets.get(request.getRemoteAddr(), client -> new TokenBucket(requestsPerSecond, burst, now))
+                    .tryConsume(now);
+            if (waitNanos > 0) {
+                rateRejections.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Request rate limit exceeded; try again later",
+                        "Too Many Requests", seconds(waitNanos));
+                return;
+            }
+        }
+
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "The server is overloaded; try again later",
+                    "Service Unavailable", seconds(retryAfter.toNanos()));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() || matches(unmeasuredPaths, request)) {
+                limiter.releaseUnmeasured();
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private boolean matches(List<String> patterns, HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, String error,
+                        long retryAfterSeconds) throws IOException {
+        ApiErrorResponse body = ResponseBuilder.error(status, message, error).getBody();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Rounds up to whole seconds, the unit of Retry-After, and never below one
+     */
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,50 @@
+package com.fabiornt.rest_template.loadshedding;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket refilled at a fixed rate, held in a single {@link AtomicLong} so it can be shared between
+ * threads without locking.
+ *
+ * <p>It is implemented as the generic cell rate algorithm: instead of a token count, the bucket keeps the
+ * theoretical arrival time of the next request, which advances by one emission interval per accepted request.
+ * A request is accepted while that time is at most {@code burst} intervals ahead of now, which is the same as
+ * a bucket of {@code burst} tokens refilled every interval.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param tokensPerSecond Refill rate
+     * @param burst Bucket capacity, the number of requests accepted at once after a quiet period
+     * @param nowNanos Current {@link System#nanoTime()}; the bucket starts full
+     */
+    public TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
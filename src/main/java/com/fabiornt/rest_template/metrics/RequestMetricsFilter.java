@@ -0,0 +1,88 @@
+package com.fabiornt.rest_template.metrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tracks the timing breakdown of every API request.
+ *
+ * <p>Per controller method, the time is split into service (database) calls, model assembly and
+ * serialization ({@code api.request.phase} timer), and the number of SQL statements is recorded
+ * ({@code api.request.sql.statements}). Requests slower than the configured threshold are logged
+ * with their breakdown.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestThresholdNanos;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThresholdNanos = slowRequestThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+            record(request, response, timings, System.nanoTime());
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestTimings timings, long end) {
+        String endpoint = timings.endpoint();
+        if (endpoint == null) {
+            return;
+        }
+
+        long service = timings.serviceNanos();
+        long assembly = timings.assemblyNanos(end);
+        long serialization = timings.serializationNanos(end);
+        phaseTimer(endpoint, "service").record(service, TimeUnit.NANOSECONDS);
+        phaseTimer(endpoint, "assembly").record(assembly, TimeUnit.NANOSECONDS);
+        phaseTimer(endpoint, "serialization").record(serialization, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("api.request.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(timings.sqlStatements());
+
+        long total = timings.totalNanos(end);
+        if (total >= slowRequestThresholdNanos) {
+            log.warn("Slow request {} {} ({}) -> {} took {} ms: service {} ms, assembly {} ms, serialization {} ms, {} SQL statements",
+                    request.getMethod(), request.getRequestURI(), endpoint, response.getStatus(),
+                    millis(total), millis(service), millis(assembly), millis(serialization), timings.sqlStatements());
+        }
+    }
+
+    private Timer phaseTimer(String endpoint, String phase) {
+        return Timer.builder("api.request.phase")
+                .description("Request time per phase")
+                .tag("endpoint", endpoint)
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
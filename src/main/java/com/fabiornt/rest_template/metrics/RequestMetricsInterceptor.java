@@ -0,0 +1,22 @@
+package com.fabiornt.rest_template.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records which controller method handles the request and when it starts.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null && handler instanceof HandlerMethod handlerMethod) {
+            timings.handlerStarted(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package com.fabiornt.rest_template.metrics;
+
+/**
+ * Timing breakdown of the request being handled on the current thread.
+ * Filled in by {@link RequestMetricsFilter}, {@link RequestMetricsInterceptor},
+ * {@link ServiceTimingAspect}, {@link SerializationTimingAdvice} and {@link SqlStatementCounter}.
+ */
+public class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long handlerStartNanos;
+    private long serializationStartNanos;
+    private long serviceNanos;
+    private int sqlStatements;
+    private String endpoint;
+
+    /**
+     * Returns the timings of the request on the current thread, or null outside a tracked request.
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void handlerStarted(String endpoint) {
+        this.endpoint = endpoint;
+        this.handlerStartNanos = System.nanoTime();
+    }
+
+    void serializationStarted() {
+        if (serializationStartNanos == 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    void addServiceTime(long nanos) {
+        serviceNanos += nanos;
+    }
+
+    void sqlStatementExecuted() {
+        sqlStatements++;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    int sqlStatements() {
+        return sqlStatements;
+    }
+
+    long totalNanos(long endNanos) {
+        return endNanos - startNanos;
+    }
+
+    long serviceNanos() {
+        return serviceNanos;
+    }
+
+    /**
+     * Time spent in the controller outside service calls: model assembly, links and envelopes.
+     */
+    long assemblyNanos(long endNanos) {
+        if (handlerStartNanos == 0) {
+            return 0;
+        }
+        long handlerEnd = serializationStartNanos != 0 ? serializationStartNanos : endNanos;
+        return Math.max(0, handlerEnd - handlerStartNanos - serviceNanos);
+    }
+
+    /**
+     * Time from handing the body to the message converter until the response was complete.
+     */
+    long serializationNanos(long endNanos) {
+        return serializationStartNanos != 0 ? endNanos - serializationStartNanos : 0;
+    }
+}
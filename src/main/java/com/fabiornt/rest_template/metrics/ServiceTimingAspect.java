@@ -0,0 +1,48 @@
+package com.fabiornt.rest_template.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times calls into the service layer, where all database access happens.
+ * Each call is recorded in the {@code api.service.calls} timer and added to the service time of the current request.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.fabiornt.rest_template.service.*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("api.service.calls")
+                    .description("Time spent in service (database) calls")
+                    .tag("method", joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName())
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.addServiceTime(elapsed);
+            }
+        }
+    }
+}
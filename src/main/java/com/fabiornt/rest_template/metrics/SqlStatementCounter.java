@@ -0,0 +1,20 @@
+package com.fabiornt.rest_template.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the current request.
+ * Registered through the {@code hibernate.session_factory.statement_inspector} property,
+ * so Hibernate instantiates it and it only talks to {@link RequestTimings}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.sqlStatementExecuted();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,132 @@
+package com.fabiornt.rest_template.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fabiornt.rest_template.domain.model.UserChange;
+
+/**
+ * The {@code user_changes} outbox, accessed through plain JDBC.
+ *
+ * <p>Changes are appended with one JDBC batch statement on the connection of the surrounding transaction,
+ * so they commit or roll back with the user rows they describe. Reads never run in a read-only transaction
+ * and so always go to the primary: a replica would show the outbox late.
+ */
+@Repository
+public class UserChangeRepository {
+
+    private static final String INSERT = "insert into user_changes (user_id, operation, user_version) values (?, ?, ?)";
+
+    private static final String SELECT = "select seq, user_id, operation, user_version, changed_at from user_changes";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records changes in the current transaction
+     *
+     * @param changes The changes; their sequence numbers and times are ignored
+     */
+    public void append(List<UserChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.userId());
+            statement.setString(2, change.operation().name());
+            statement.setObject(3, change.version());
+        });
+    }
+
+    /**
+     * Committed changes in sequence order
+     *
+     * @param afterSeq Only changes with a greater sequence number are returned
+     * @param upToSeq Only changes with this sequence number or a lower one are returned
+     * @param limit Maximum number of changes to return
+     * @return The changes
+     */
+    public List<UserChange> findAfter(long afterSeq, long upToSeq, int limit) {
+        return jdbcTemplate.query(SELECT + " where seq > ? and seq <= ? order by seq limit ?",
+                UserChangeRepository::mapChange, afterSeq, upToSeq, limit);
+    }
+
+    /**
+     * @return The lowest sequence number still in the table, or empty if the table is empty
+     */
+    public Optional<Long> findFirstSeq() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("select min(seq) from user_changes", Long.class));
+    }
+
+    /**
+     * @param age Minimum age of the change
+     * @return The highest sequence number of the changes inserted at least {@code age} ago, or empty if there are none
+     */
+    public Optional<Long> findLastSeqOlderThan(Duration age) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "select max(seq) from user_changes where changed_at < clock_timestamp() - make_interval(secs => ?)",
+                Long.class, age.toMillis() / 1000.0));
+    }
+
+    /**
+     * @return The last sequence number handed out, including those of rolled back or purged changes, or 0 if none was
+     */
+    public long findLastAssignedSeq() {
+        Long seq = jdbcTemplate.queryForObject(
+                "select pg_sequence_last_value(pg_get_serial_sequence('user_changes', 'seq'))", Long.class);
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * The transactions running right now, as far as the gaps in the sequence are concerned
+     *
+     * @return The current transaction snapshot
+     */
+    public TransactionSnapshot currentSnapshot() {
+        return jdbcTemplate.queryForObject(
+                "select pg_snapshot_xmin(s)::text::bigint, pg_snapshot_xmax(s)::text::bigint from pg_current_snapshot() s",
+                (rs, row) -> new TransactionSnapshot(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * Deletes the changes inserted more than {@code age} ago
+     *
+     * @param age Age beyond which changes are deleted
+     * @return The highest deleted sequence number, or empty if nothing was deleted
+     */
+    public Optional<Long> deleteOlderThan(Duration age) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("""
+                with deleted as (
+                    delete from user_changes where changed_at < clock_timestamp() - make_interval(secs => ?) returning seq)
+                select max(seq) from deleted""", Long.class, age.toMillis() / 1000.0));
+    }
+
+    private static UserChange mapChange(ResultSet rs, int row) throws SQLException {
+        Timestamp changedAt = rs.getTimestamp("changed_at");
+        return new UserChange(
+                rs.getLong("seq"),
+                rs.getLong("user_id"),
+                UserChange.Operation.valueOf(rs.getString("operation")),
+                rs.getObject("user_version", Long.class),
+                changedAt.toInstant());
+    }
+
+    /**
+     * Bounds of a PostgreSQL transaction snapshot: every transaction id below {@code xmin} has ended,
+     * and every one from {@code xmax} on had not started when the snapshot was taken.
+     */
+    public record TransactionSnapshot(long xmin, long xmax) {
+    }
+}
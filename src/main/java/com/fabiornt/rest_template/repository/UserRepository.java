@@ -1,13 +1,142 @@
 package com.fabiornt.rest_template.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.StoredPassword;
+import com.fabiornt.rest_template.domain.model.UserView;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserViewRepository {
     Optional<User> findByEmail(String email);
+
+    /**
+     * Users owning any of the given emails, fetched in a single IN query.
+     *
+     * @param emails Email addresses to look up
+     * @return Users with one of the emails
+     */
+    List<User> findByEmailIn(Collection<String> emails);
+
+    /**
+     * The subset of the given emails that are already taken, fetched in a single IN query.
+     *
+     * @param emails Email addresses to check
+     * @return Emails that already exist
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * The stored password of a user and its version, without loading the entity.
+     *
+     * @param id The user ID
+     * @return The stored password, or empty if the user doesn't exist
+     */
+    @Query("select new com.fabiornt.rest_template.domain.model.StoredPassword(u.password, u.version) from User u where u.id = :id")
+    Optional<StoredPassword> findStoredPasswordById(@Param("id") Long id);
+
+    /**
+     * Row estimate kept by PostgreSQL statistics (updated by ANALYZE/autovacuum).
+     *
+     * @return Estimated number of rows, negative if the table was never analyzed, or null if it doesn't exist
+     */
+    @Query(value = "select cast(reltuples as bigint) from pg_class where oid = to_regclass('users')", nativeQuery = true)
+    Long estimateCount();
+
+    /**
+     * Version of the users table, used as the ETag of user collections.
+     * A trigger adds 1 to one of the 16 rows of users_version in every transaction that writes users.
+     *
+     * @return The sum of the stripes of users_version
+     */
+    @Query(value = "select coalesce(sum(version), 0) from users_version", nativeQuery = true)
+    long findUsersVersion();
+
+    // Read path: constructor projections select only the columns responses need (never the password)
+    // and return plain records, so nothing is tracked in the persistence context.
+
+    /**
+     * A user by id, as a view.
+     *
+     * @param id The user ID
+     * @return The user view, or empty if it doesn't exist
+     */
+    @Query("select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    /**
+     * Users with any of the given ids, as views, fetched in a single IN query.
+     *
+     * @param ids The user IDs
+     * @return Views of the users that exist, in no particular order
+     */
+    @Query("select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * A user by email, as a view.
+     *
+     * @param email The email address
+     * @return The user view, or empty if it doesn't exist
+     */
+    @Query("select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u where u.email = :email")
+    Optional<UserView> findViewByEmail(@Param("email") String email);
+
+    /**
+     * A page of user views with an exact count.
+     *
+     * @param pageable Pagination information
+     * @return Page of user views
+     */
+    @Query(value = "select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u",
+           countQuery = "select count(u) from User u")
+    Page<UserView> findAllViews(Pageable pageable);
+
+    /**
+     * A page of user views without a count query.
+     * Returning a Slice reads one extra row to detect a next page.
+     *
+     * @param pageable Pagination information
+     * @return Slice of user views
+     */
+    @Query("select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u")
+    Slice<UserView> findAllViewsBy(Pageable pageable);
+
+    /**
+     * Keyset pagination over user views: users with an id greater than the given one.
+     *
+     * @param id The id to start after
+     * @param pageable Page size and sort, always requested as page 0
+     * @return Slice of user views
+     */
+    @Query("select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u where u.id > :id")
+    Slice<UserView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams all user views ordered by id. The fetch size makes the PostgreSQL driver
+     * use a server-side cursor instead of loading the whole result set, so the
+     * stream must be consumed inside a transaction and closed afterwards.
+     * Views are not managed, so the persistence context stays empty however many rows are read.
+     *
+     * @return Stream of user views ordered by id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.fabiornt.rest_template.domain.model.UserView(u.id, u.username, u.email, u.version) from User u order by u.id")
+    Stream<UserView> streamAllViewsOrderedById();
 }
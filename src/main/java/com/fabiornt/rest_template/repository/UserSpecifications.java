@@ -0,0 +1,88 @@
+package com.fabiornt.rest_template.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.UserFilter;
+
+/**
+ * JPA specifications for filtering users.
+ *
+ * <p>Each predicate is written to match an index from {@code 5-users-search-indexes}: the username filter is a
+ * {@code LIKE 'prefix%'} on {@code lower(username)}, and the email domain filter, a suffix match that no btree
+ * index can serve directly, is a prefix match on {@code reverse(lower(email))}.
+ */
+public class UserSpecifications {
+
+    /**
+     * Users matching every filter that is set
+     *
+     * @param filter The filters
+     * @return Specification combining the filters with AND
+     */
+    public static Specification<User> matching(UserFilter filter) {
+        List<Specification<User>> specifications = new ArrayList<>(4);
+        if (StringUtils.hasText(filter.username())) {
+            specifications.add(usernameStartsWith(filter.username()));
+        }
+        if (StringUtils.hasText(filter.emailDomain())) {
+            specifications.add(emailDomainIs(filter.emailDomain()));
+        }
+        if (filter.minId() != null) {
+            specifications.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("id"), filter.minId()));
+        }
+        if (filter.maxId() != null) {
+            specifications.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("id"), filter.maxId()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    /**
+     * Users with an id greater than the given one, for keyset pagination
+     *
+     * @param id The id to start after
+     * @return Specification on the id
+     */
+    public static Specification<User> idGreaterThan(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Users whose username starts with the given prefix, ignoring case
+     *
+     * @param prefix The username prefix
+     * @return Specification on {@code lower(username)}
+     */
+    public static Specification<User> usernameStartsWith(String prefix) {
+        String pattern = escapeLike(prefix.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("username")), pattern);
+    }
+
+    /**
+     * Users whose email is in the given domain, ignoring case. A leading {@code @} is optional.
+     *
+     * @param domain The email domain
+     * @return Specification on {@code reverse(lower(email))}
+     */
+    public static Specification<User> emailDomainIs(String domain) {
+        String suffix = domain.trim().toLowerCase(Locale.ROOT);
+        if (!suffix.startsWith("@")) {
+            suffix = "@" + suffix;
+        }
+        // Reversed, the domain suffix becomes a prefix; escaping comes after reversing so each backslash precedes its character
+        String pattern = escapeLike(new StringBuilder(suffix).reverse().toString()) + "%";
+        return (root, query, cb) -> cb.like(cb.function("reverse", String.class, cb.lower(root.get("email"))), pattern);
+    }
+
+    /**
+     * Escapes LIKE wildcards with PostgreSQL's default escape character, the backslash
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,36 @@
+package com.fabiornt.rest_template.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.UserView;
+
+/**
+ * Filtered reads of user views. Like the {@code @Query} projections of {@link UserRepository}, they select
+ * only the columns of {@link UserView} with a constructor expression, which derived specification queries can't do.
+ */
+public interface UserViewRepository {
+
+    /**
+     * A page of user views matching a specification, with an exact count.
+     * The count query is skipped when the page shows the total is reached.
+     *
+     * @param specification The filter
+     * @param pageable Pagination information
+     * @return Page of user views
+     */
+    Page<UserView> findViews(Specification<User> specification, Pageable pageable);
+
+    /**
+     * A slice of user views matching a specification, without a count query.
+     * One extra row is read to detect a next page.
+     *
+     * @param specification The filter
+     * @param pageable Pagination information
+     * @return Slice of user views
+     */
+    Slice<UserView> findViewSlice(Specification<User> specification, Pageable pageable);
+}
@@ -0,0 +1,45 @@
+package com.fabiornt.rest_template.service;
+
+import java.util.Locale;
+
+import com.fabiornt.rest_template.exception.InvalidRequestParameterException;
+
+/**
+ * How the total number of users is determined for a paginated response.
+ */
+public enum CountStrategy {
+
+    /**
+     * Run an exact {@code count(*)} query next to the page query.
+     */
+    EXACT,
+
+    /**
+     * Skip counting; whether a next page exists is found by reading one extra row.
+     */
+    NONE,
+
+    /**
+     * Use the planner's row estimate from PostgreSQL statistics, cached for a short time.
+     */
+    ESTIMATE;
+
+    /**
+     * Parses a count strategy from a request parameter or property value (case-insensitive).
+     *
+     * @param value The strategy name, or null
+     * @return The matching strategy, or null when no value is given
+     * @throws InvalidRequestParameterException if the value is not a known strategy
+     */
+    public static CountStrategy from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return CountStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("count", value);
+        }
+    }
+}
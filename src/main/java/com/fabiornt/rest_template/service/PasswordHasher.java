@@ -0,0 +1,173 @@
+package com.fabiornt.rest_template.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.fabiornt.rest_template.exception.PasswordHashingBusyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hashes user passwords on a dedicated, bounded thread pool.
+ *
+ * <p>Hashing is deliberately slow and CPU-bound, so it runs on at most {@code api.password.hashing-threads}
+ * threads: a burst of signups queues there instead of taking every core from read requests. When more than
+ * {@code api.password.hashing-queue-capacity} hashes are waiting, new ones are rejected.
+ *
+ * <p>Hashes are stored with their algorithm as prefix ({@code {bcrypt}...}, {@code {pbkdf2}...}), so the algorithm
+ * and cost can change without invalidating existing hashes. Values without a known prefix are passwords stored as
+ * plain text before hashing was introduced. A hash with an older algorithm or a lower cost is only replaced when
+ * the client sends the password again: the API has no login that would see it otherwise.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String PBKDF2 = "pbkdf2";
+
+    private final PasswordEncoder encoder;
+    private final int threads;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param algorithm {@code bcrypt} or {@code pbkdf2}
+     * @param bcryptStrength BCrypt log rounds; each step doubles the cost
+     * @param pbkdf2Iterations PBKDF2-HMAC-SHA256 iterations
+     * @param threads Hashing threads, or 0 for half the available processors
+     * @param queueCapacity Hashes that can wait for a thread
+     */
+    @Autowired
+    public PasswordHasher(@Value("${api.password.algorithm:bcrypt}") String algorithm,
+                          @Value("${api.password.bcrypt-strength:10}") int bcryptStrength,
+                          @Value("${api.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                          @Value("${api.password.hashing-threads:0}") int threads,
+                          @Value("${api.password.hashing-queue-capacity:256}") int queueCapacity) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, new BCryptPasswordEncoder(bcryptStrength),
+                PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unknown password hashing algorithm: " + algorithm);
+        }
+        this.encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"));
+    }
+
+    /**
+     * Hash a password with the configured algorithm and cost, waiting for a hashing thread
+     *
+     * @param rawPassword The password as given by the client
+     * @return The prefixed hash
+     * @throws PasswordHashingBusyException if too many hashes are waiting
+     */
+    public String hash(String rawPassword) {
+        return await(submit(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hash many passwords, spread over the hashing threads.
+     * Each task hashes one password and at most one task per thread is queued at a time, so a single hash
+     * submitted meanwhile waits for one password of the batch rather than for the whole batch.
+     *
+     * @param rawPasswords The passwords as given by the clients
+     * @return The prefixed hashes, in the same order
+     * @throws PasswordHashingBusyException if too many hashes are waiting
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        String[] hashes = new String[rawPasswords.size()];
+        CompletionService<Integer> completed = new ExecutorCompletionService<>(executor);
+        int submitted = 0;
+        for (int done = 0; done < hashes.length; done++) {
+            while (submitted < hashes.length && submitted - done < threads) {
+                int index = submitted++;
+                submit(completed, () -> {
+                    hashes[index] = encoder.encode(rawPasswords.get(index));
+                    return index;
+                });
+            }
+            await(take(completed));
+        }
+        return Arrays.asList(hashes);
+    }
+
+    /**
+     * Whether a stored password is plain text from before hashing was introduced.
+     * Such a password can be hashed without the client providing it again.
+     *
+     * @param storedPassword The stored password
+     * @return Whether it has no known algorithm prefix
+     */
+    public boolean isPlainText(String storedPassword) {
+        int end = storedPassword.indexOf('}');
+        if (!storedPassword.startsWith("{") || end < 0) {
+            return true;
+        }
+        String id = storedPassword.substring(1, end);
+        return !id.equals(BCRYPT) && !id.equals(PBKDF2);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException(queueCapacity);
+        }
+    }
+
+    private <T> void submit(CompletionService<T> completionService, Callable<T> task) {
+        try {
+            completionService.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException(queueCapacity);
+        }
+    }
+
+    private static <T> Future<T> take(CompletionService<T> completionService) {
+        try {
+            return completionService.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
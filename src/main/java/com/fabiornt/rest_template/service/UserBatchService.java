@@ -0,0 +1,380 @@
+package com.fabiornt.rest_template.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.UserChange;
+import com.fabiornt.rest_template.exception.BatchTooLargeException;
+import com.fabiornt.rest_template.exception.EmailAlreadyExistsException;
+import com.fabiornt.rest_template.repository.UserChangeRepository;
+import com.fabiornt.rest_template.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk create, update and delete of users.
+ *
+ * <p>Items are processed in chunks. Each chunk checks its emails with one IN query and is written
+ * through JDBC batching (pooled id sequence plus {@code hibernate.jdbc.batch_size}). The persistence
+ * context is flushed and cleared after every chunk, so memory stays bounded however large the batch is.
+ * Every item gets its own result; invalid or conflicting items don't stop the rest of the batch.
+ *
+ * <p>Creates and updates commit each chunk in its own transaction. The passwords of a chunk's valid items are
+ * hashed after validation and before that transaction starts, so no connection is held while hashing; items that
+ * then conflict have been hashed for nothing. Chunks committed before an error stay committed.
+ * The changes of each chunk are recorded in the outbox with one more batch statement, in the chunk's transaction.
+ * If a concurrent request takes one of a chunk's emails after the check, the unique index rejects the chunk; it is
+ * rolled back and its items are retried one per transaction, so only the items that lost their email become conflicts.
+ */
+@Service
+public class UserBatchService
+{
+    private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final UserCache userCache;
+    private final PasswordHasher passwordHasher;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int maxBatchSize;
+    private final int chunkSize;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public UserBatchService(UserRepository userRepository, UserChangeRepository userChangeRepository, UserCache userCache, PasswordHasher passwordHasher,
+                            EntityManager entityManager, Validator validator, PlatformTransactionManager transactionManager,
+                            @Value("${api.batch.max-size:50000}") int maxBatchSize,
+                            @Value("${api.batch.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.userCache = userCache;
+        this.passwordHasher = passwordHasher;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create users in bulk
+     *
+     * @param users The users to create; ids are ignored
+     * @return One result per user, in request order
+     */
+    public List<BatchItemResult<User>> createUsers(List<User> users) {
+        checkBatchSize(users.size());
+
+        List<BatchItemResult<User>> results = new ArrayList<>(users.size());
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int start = 0; start < users.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, users.size());
+
+            // Validate the chunk and find duplicates inside the request itself
+            Map<Integer, User> candidates = new HashMap<>();
+            BatchItemResult<User>[] chunkResults = newChunk(end - start);
+            for (int i = start; i < end; i++) {
+                User user = users.get(i);
+                List<String> errors = validate(user);
+                if (!errors.isEmpty()) {
+                    chunkResults[i - start] = BatchItemResult.failure(i, null, HttpStatus.UNPROCESSABLE_ENTITY, errors);
+                } else if (!batchEmails.add(user.getEmail())) {
+                    chunkResults[i - start] = BatchItemResult.failure(i, null, HttpStatus.CONFLICT, "Email already exists: " + user.getEmail());
+                } else {
+                    candidates.put(i, user);
+                }
+            }
+
+            hashPasswords(candidates.values());
+            int chunkStart = start;
+            writeChunk(chunkStart, candidates, chunkResults, this::insertChunk, user -> null);
+            results.addAll(Arrays.asList(chunkResults));
+        }
+
+        return results;
+    }
+
+    /**
+     * Writes a chunk in its own transaction. If the unique email index rejects it, the chunk is rolled back and
+     * its candidates are written one per transaction; those rejected again get a conflict result.
+     *
+     * @param resultId The id to report for an item that conflicts
+     */
+    private void writeChunk(int start, Map<Integer, User> candidates, BatchItemResult<User>[] chunkResults,
+                            ChunkWriter writer, Function<User, Long> resultId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.write(start, candidates, chunkResults));
+        } catch (DataIntegrityViolationException ex) {
+            if (!EmailAlreadyExistsException.isDuplicateEmail(ex)) {
+                throw ex;
+            }
+            for (Map.Entry<Integer, User> candidate : new TreeMap<>(candidates).entrySet()) {
+                int index = candidate.getKey();
+                User user = candidate.getValue();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writer.write(start, Map.of(index, user), chunkResults));
+                } catch (DataIntegrityViolationException itemEx) {
+                    if (!EmailAlreadyExistsException.isDuplicateEmail(itemEx)) {
+                        throw itemEx;
+                    }
+                    chunkResults[index - start] = BatchItemResult.failure(index, resultId.apply(user), HttpStatus.CONFLICT,
+                            "Email already exists: " + user.getEmail());
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the candidates of a chunk whose emails are not taken yet, filling in their results
+     */
+    private void insertChunk(int start, Map<Integer, User> candidates, BatchItemResult<User>[] chunkResults) {
+        // One query for all emails of the chunk
+        Set<String> existingEmails = candidates.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingEmails(
+                candidates.values().stream().map(User::getEmail).collect(Collectors.toList())));
+
+        List<User> toInsert = new ArrayList<>(candidates.size());
+        List<Integer> insertIndexes = new ArrayList<>(candidates.size());
+        for (int i = start; i < start + chunkResults.length; i++) {
+            User user = candidates.get(i);
+            if (user == null) {
+                continue;
+            }
+            if (existingEmails.contains(user.getEmail())) {
+                chunkResults[i - start] = BatchItemResult.failure(i, null, HttpStatus.CONFLICT, "Email already exists: " + user.getEmail());
+            } else {
+                // Also clears what a rolled back attempt assigned
+                user.setId(null);
+                user.setVersion(null);
+                toInsert.add(user);
+                insertIndexes.add(i);
+            }
+        }
+
+        userRepository.saveAll(toInsert);
+        flushAndClear();
+        recordChanges(toInsert, UserChange.Operation.CREATED);
+
+        for (int k = 0; k < toInsert.size(); k++) {
+            User created = toInsert.get(k);
+            int index = insertIndexes.get(k);
+            chunkResults[index - start] = BatchItemResult.success(index, created.getId(), HttpStatus.CREATED, created);
+        }
+    }
+
+    /**
+     * Update users in bulk. Every user must carry its id; all fields are replaced, as with PUT.
+     *
+     * @param users The users to update
+     * @return One result per user, in request order
+     */
+    public List<BatchItemResult<User>> updateUsers(List<User> users) {
+        checkBatchSize(users.size());
+
+        List<BatchItemResult<User>> results = new ArrayList<>(users.size());
+        Set<Long> batchIds = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int start = 0; start < users.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, users.size());
+
+            Map<Integer, User> candidates = new HashMap<>();
+            BatchItemResult<User>[] chunkResults = newChunk(end - start);
+            for (int i = start; i < end; i++) {
+                User user = users.get(i);
+                List<String> errors = validate(user);
+                if (errors.isEmpty() && user.getId() == null) {
+                    errors = List.of("id: Id is required");
+                }
+                if (!errors.isEmpty()) {
+                    chunkResults[i - start] = BatchItemResult.failure(i, user != null ? user.getId() : null, HttpStatus.UNPROCESSABLE_ENTITY, errors);
+                } else if (!batchIds.add(user.getId())) {
+                    chunkResults[i - start] = BatchItemResult.failure(i, user.getId(), HttpStatus.CONFLICT, "User appears more than once in the batch: " + user.getId());
+                } else if (!batchEmails.add(user.getEmail())) {
+                    chunkResults[i - start] = BatchItemResult.failure(i, user.getId(), HttpStatus.CONFLICT, "Email already exists: " + user.getEmail());
+                } else {
+                    candidates.put(i, user);
+                }
+            }
+
+            hashPasswords(candidates.values());
+            int chunkStart = start;
+            writeChunk(chunkStart, candidates, chunkResults, this::updateChunk, User::getId);
+            results.addAll(Arrays.asList(chunkResults));
+        }
+
+        return results;
+    }
+
+    /**
+     * Updates the users of a chunk that exist and whose new emails are not taken by another user, filling in their results
+     */
+    private void updateChunk(int start, Map<Integer, User> candidates, BatchItemResult<User>[] chunkResults) {
+        // One query for the users of the chunk and one for the owners of their emails
+        Map<Long, User> existing = userRepository.findAllById(
+                candidates.values().stream().map(User::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, Long> emailOwners = candidates.isEmpty() ? Map.of() : userRepository.findByEmailIn(
+                candidates.values().stream().map(User::getEmail).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(User::getEmail, User::getId));
+
+        List<User> updated = new ArrayList<>(candidates.size());
+        List<Integer> updatedIndexes = new ArrayList<>(candidates.size());
+        for (int i = start; i < start + chunkResults.length; i++) {
+            User details = candidates.get(i);
+            if (details == null) {
+                continue;
+            }
+            User user = existing.get(details.getId());
+            Long owner = emailOwners.get(details.getEmail());
+            if (user == null) {
+                chunkResults[i - start] = BatchItemResult.failure(i, details.getId(), HttpStatus.NOT_FOUND,
+                        String.format("User not found with id: '%s'", details.getId()));
+            } else if (owner != null && !owner.equals(user.getId())) {
+                chunkResults[i - start] = BatchItemResult.failure(i, details.getId(), HttpStatus.CONFLICT, "Email already exists: " + details.getEmail());
+            } else {
+                userCache.evict(user.getId(), user.getEmail(), details.getEmail());
+                user.setUsername(details.getUsername());
+                user.setEmail(details.getEmail());
+                // Already hashed
+                user.setPassword(details.getPassword());
+                updated.add(user);
+                updatedIndexes.add(i);
+            }
+        }
+
+        flushAndClear();
+        recordChanges(updated, UserChange.Operation.UPDATED);
+
+        for (int k = 0; k < updated.size(); k++) {
+            User user = updated.get(k);
+            int index = updatedIndexes.get(k);
+            chunkResults[index - start] = BatchItemResult.success(index, user.getId(), HttpStatus.OK, user);
+        }
+    }
+
+    /**
+     * Delete users in bulk
+     *
+     * @param ids The ids of the users to delete
+     * @return One result per id, in request order
+     */
+    @Transactional
+    public List<BatchItemResult<User>> deleteUsers(List<Long> ids) {
+        checkBatchSize(ids.size());
+
+        List<BatchItemResult<User>> results = new ArrayList<>(ids.size());
+
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, ids.size());
+            List<Long> chunk = ids.subList(start, end);
+
+            // Ids deleted by an earlier chunk are no longer found, so duplicates are reported as not found
+            Map<Long, User> existing = userRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            if (!existing.isEmpty()) {
+                userRepository.deleteAllByIdInBatch(existing.keySet());
+                userChangeRepository.append(existing.keySet().stream()
+                        .map(id -> UserChange.of(id, UserChange.Operation.DELETED, null))
+                        .toList());
+            }
+
+            for (int i = start; i < end; i++) {
+                Long id = ids.get(i);
+                User deleted = id != null ? existing.remove(id) : null;
+                if (deleted != null) {
+                    userCache.evict(id, deleted.getEmail());
+                    results.add(BatchItemResult.success(i, id, HttpStatus.NO_CONTENT, null));
+                } else {
+                    results.add(BatchItemResult.failure(i, id, HttpStatus.NOT_FOUND,
+                            String.format("User not found with id: '%s'", id)));
+                }
+            }
+            flushAndClear();
+        }
+
+        return results;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new BatchTooLargeException(size, maxBatchSize);
+        }
+    }
+
+    /**
+     * Validates a user with its Bean Validation constraints, with the same messages as single requests.
+     */
+    private List<String> validate(User user) {
+        if (user == null) {
+            return List.of("User is required");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<User> violation : validator.validate(user)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Replaces the raw passwords of the given users by their hashes
+     */
+    private void hashPasswords(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<User> ordered = List.copyOf(users);
+        List<String> hashes = passwordHasher.hashAll(ordered.stream().map(User::getPassword).toList());
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).setPassword(hashes.get(i));
+        }
+    }
+
+    private void recordChanges(List<User> users, UserChange.Operation operation) {
+        userChangeRepository.append(users.stream()
+                .map(user -> UserChange.of(user.getId(), operation, user.getVersion()))
+                .toList());
+    }
+
+    /**
+     * Flushes through the repository, so constraint violations surface as DataIntegrityViolationException
+     */
+    private void flushAndClear() {
+        userRepository.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Writes the candidates of a chunk inside the current transaction, filling in their results
+     */
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(int start, Map<Integer, User> candidates, BatchItemResult<User>[] chunkResults);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BatchItemResult<User>[] newChunk(int size) {
+        return new BatchItemResult[size];
+    }
+}
@@ -0,0 +1,147 @@
+package com.fabiornt.rest_template.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read-through cache of users by id and by email.
+ * Values are immutable {@link UserView}s, never managed entities, and missing users are not cached.
+ * Size, TTL and eviction policy come from the {@code spring.cache.caffeine.spec} property.
+ *
+ * <p>For the read-your-writes window after a user is evicted, loads of that user are returned but not cached:
+ * a replica may still return the old row, and a load that started before the write may finish after the eviction.
+ */
+@Component
+public class UserCache {
+
+    public static final String USERS = "users";
+    public static final String USER_IDS_BY_EMAIL = "userIdsByEmail";
+
+    private final Cache users;
+    private final Cache userIdsByEmail;
+    private final com.github.benmanes.caffeine.cache.Cache<Long, Boolean> recentlyEvicted;
+
+    @Autowired
+    public UserCache(CacheManager cacheManager,
+                     @Value("${api.datasource.replica.read-your-writes-window:5s}") Duration recacheDelay) {
+        this.users = Objects.requireNonNull(cacheManager.getCache(USERS), "Missing cache: " + USERS);
+        this.userIdsByEmail = Objects.requireNonNull(cacheManager.getCache(USER_IDS_BY_EMAIL), "Missing cache: " + USER_IDS_BY_EMAIL);
+        this.recentlyEvicted = Caffeine.newBuilder().expireAfterWrite(recacheDelay).build();
+    }
+
+    /**
+     * Returns the user with the given id, loading and caching it on a miss.
+     *
+     * @param id The user ID
+     * @param loader Loads the user from the database on a cache miss
+     * @return The user, or empty if it doesn't exist
+     */
+    public Optional<UserView> getById(Long id, Function<Long, Optional<UserView>> loader) {
+        UserView cached = users.get(id, UserView.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return loader.apply(id).map(this::put);
+    }
+
+    /**
+     * Returns the users with the given ids, loading all cache misses with one call and caching them.
+     *
+     * @param ids The user IDs, without duplicates
+     * @param loader Loads the missing users from the database
+     * @return The users that exist, by id
+     */
+    public Map<Long, UserView> getAllById(Collection<Long> ids, Function<Collection<Long>, List<UserView>> loader) {
+        Map<Long, UserView> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            UserView cached = users.get(id, UserView.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach(user -> found.put(user.id(), put(user)));
+        }
+        return found;
+    }
+
+    /**
+     * Returns the user with the given email, loading and caching it on a miss.
+     * The email index only maps to ids, so a user is cached once whichever way it is looked up.
+     *
+     * @param email The email address
+     * @param loader Loads the user from the database on a cache miss
+     * @return The user, or empty if it doesn't exist
+     */
+    public Optional<UserView> getByEmail(String email, Function<String, Optional<UserView>> loader) {
+        Long id = userIdsByEmail.get(email, Long.class);
+        if (id != null) {
+            UserView cached = users.get(id, UserView.class);
+            if (cached != null && cached.email().equals(email)) {
+                return Optional.of(cached);
+            }
+        }
+        return loader.apply(email).map(this::put);
+    }
+
+    /**
+     * Removes a user from the cache. Inside a transaction this happens after commit,
+     * so readers can't re-cache the old state from the database before the change is visible.
+     * Entries are also bounded by the cache TTL.
+     *
+     * @param id The user ID
+     * @param emails Email addresses that pointed to the user (old and new)
+     */
+    public void evict(Long id, String... emails) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, emails);
+                }
+            });
+        } else {
+            evictNow(id, emails);
+        }
+    }
+
+    private void evictNow(Long id, String... emails) {
+        recentlyEvicted.put(id, Boolean.TRUE);
+        users.evict(id);
+        for (String email : emails) {
+            if (email != null) {
+                userIdsByEmail.evict(email);
+            }
+        }
+    }
+
+    private UserView put(UserView user) {
+        if (recentlyEvicted.getIfPresent(user.id()) != null) {
+            return user;
+        }
+        users.put(user.id(), user);
+        userIdsByEmail.put(user.email(), user.id());
+        return user;
+    }
+}
@@ -0,0 +1,372 @@
+package com.fabiornt.rest_template.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fabiornt.rest_template.domain.model.UserChange;
+import com.fabiornt.rest_template.domain.model.UserChangeFeed;
+import com.fabiornt.rest_template.exception.ChangesExpiredException;
+import com.fabiornt.rest_template.repository.UserChangeRepository;
+import com.fabiornt.rest_template.repository.UserChangeRepository.TransactionSnapshot;
+
+/**
+ * Relays the {@code user_changes} outbox to the change feed.
+ *
+ * <p>Every {@code api.changes.poll-interval} the relay reads the new outbox rows in batches, in sequence order,
+ * keeps the latest {@code api.changes.buffer-size} of them in memory and completes the long polls waiting for them.
+ * Feed reads are served from that buffer; only consumers that fell further behind read the table.
+ * Listeners, such as the SSE stream, are told after every batch and read the buffer from their own positions.
+ *
+ * <p>Sequence numbers are taken at insert time but become visible at commit, so a missing number may still
+ * show up: it belongs to a transaction that hasn't committed, or to one that rolled back. The relay stops at
+ * such a gap, and moves past it once every transaction that was running when the gap was seen has ended.
+ * Changes are therefore relayed exactly once and in order, and the position of a consumer is just the last
+ * sequence number it received. Each instance of the application relays on its own; the outbox isn't modified.
+ * When the application stops, waiting long polls are answered at once, so they don't hold up the graceful shutdown.
+ */
+@Service
+public class UserChangeRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeRelay.class);
+
+    /**
+     * A gap is never skipped before this age. It covers the short time between a transaction taking its
+     * sequence number and getting the transaction id that makes it show up in the snapshot.
+     */
+    private static final long GAP_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * On startup, changes inserted longer ago than this are taken as committed and the relay starts after them
+     */
+    private static final Duration START_LOOKBACK = Duration.ofMinutes(1);
+
+    private final UserChangeRepository userChangeRepository;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final Object lock = new Object();
+    // Ring buffer of the latest relayed changes; guarded by lock
+    private final UserChange[] buffer;
+    private int bufferHead;
+    private int bufferCount;
+    // Sequence number the buffer starts after; guarded by lock
+    private long bufferFrom;
+    private final Set<Waiter> waiters = new LinkedHashSet<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean started;
+    private volatile boolean running;
+    private volatile long relayedSeq;
+    private volatile long purgedThrough;
+
+    // Gap the relay is waiting at; only used by the relay thread
+    private long gapAfter = -1;
+    private long gapXmax;
+    private long gapSeenNanos;
+    private boolean failing;
+
+    @Autowired
+    public UserChangeRelay(UserChangeRepository userChangeRepository,
+                           @Value("${api.changes.batch-size:1000}") int batchSize,
+                           @Value("${api.changes.buffer-size:10000}") int bufferSize,
+                           @Value("${api.changes.retention:7d}") Duration retention) {
+        this.userChangeRepository = userChangeRepository;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.buffer = new UserChange[bufferSize];
+    }
+
+    /**
+     * Get the changes after a position, without waiting
+     *
+     * @param since The last sequence number the consumer has seen, or null to start at the current position
+     * @param limit Maximum number of changes to return
+     * @return The changes, oldest first
+     * @throws ChangesExpiredException if changes after {@code since} have already been purged
+     */
+    public UserChangeFeed getChanges(Long since, int limit) {
+        initialize();
+        long from = since != null ? since : relayedSeq;
+        synchronized (lock) {
+            if (from >= bufferFrom && from >= purgedThrough) {
+                return readBuffer(from, limit);
+            }
+        }
+
+        long purged = purgedThrough;
+        if (from < purged) {
+            throw new ChangesExpiredException(from, purged);
+        }
+        // Older than the buffer: read the relayed part of the table
+        return feed(userChangeRepository.findAfter(from, relayedSeq, limit), from);
+    }
+
+    /**
+     * Get the changes after a position, waiting up to {@code wait} for one if there are none yet
+     *
+     * @param since The last sequence number the consumer has seen, or null to start at the current position
+     * @param limit Maximum number of changes to return
+     * @param wait How long to wait for a change; zero returns at once
+     * @return The changes, oldest first; empty if none arrived in time
+     * @throws ChangesExpiredException if changes after {@code since} have already been purged
+     */
+    public CompletableFuture<UserChangeFeed> awaitChanges(Long since, int limit, Duration wait) {
+        UserChangeFeed feed = getChanges(since, limit);
+        if (!feed.changes().isEmpty() || wait.isZero()) {
+            return CompletableFuture.completedFuture(feed);
+        }
+
+        Waiter waiter = new Waiter(feed.next(), limit, new CompletableFuture<>());
+        synchronized (lock) {
+            // Relayed in the meantime
+            if (relayedSeq > waiter.since() && waiter.since() >= bufferFrom) {
+                return CompletableFuture.completedFuture(readBuffer(waiter.since(), limit));
+            }
+            waiters.add(waiter);
+        }
+        waiter.result().whenComplete((result, error) -> {
+            synchronized (lock) {
+                waiters.remove(waiter);
+            }
+        });
+        return waiter.result().completeOnTimeout(feed, wait.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the changes after a position from the in-memory buffer only
+     *
+     * @param since The last sequence number the reader has seen
+     * @param limit Maximum number of changes to return
+     * @return The changes, oldest first, or empty if the buffer no longer goes back to {@code since}
+     */
+    public Optional<UserChangeFeed> getBufferedChanges(long since, int limit) {
+        synchronized (lock) {
+            return since >= bufferFrom ? Optional.of(readBuffer(since, limit)) : Optional.empty();
+        }
+    }
+
+    /**
+     * @return The sequence number of the last relayed change
+     */
+    public long getPosition() {
+        initialize();
+        return relayedSeq;
+    }
+
+    /**
+     * Registers a listener run on the relay thread after each relayed batch. It must return quickly.
+     *
+     * @param listener The listener
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Relays new outbox rows, in batches until it has caught up
+     */
+    @Scheduled(fixedDelayString = "${api.changes.poll-interval:200ms}")
+    public void relay() {
+        try {
+            initialize();
+            while (relayBatch() == batchSize) {
+                // A full batch: there may be more
+            }
+            if (failing) {
+                failing = false;
+                log.info("Relaying user changes again at {}", relayedSeq);
+            }
+        } catch (DataAccessException e) {
+            if (!failing) {
+                failing = true;
+                log.warn("Could not relay user changes: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes changes older than {@code api.changes.retention}. Consumers behind them get 410 Gone.
+     */
+    @Scheduled(fixedDelayString = "${api.changes.cleanup-interval:1h}")
+    public void removeExpiredChanges() {
+        try {
+            userChangeRepository.deleteOlderThan(retention).ifPresent(seq -> {
+                synchronized (lock) {
+                    purgedThrough = Math.max(purgedThrough, seq);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not delete expired user changes: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        List<Waiter> stopped;
+        synchronized (lock) {
+            stopped = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        stopped.forEach(waiter -> waiter.result().complete(feed(List.of(), waiter.since())));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Finds where to start relaying, on first use. Runs lazily so the application starts without the database.
+     */
+    private void initialize() {
+        if (started) {
+            return;
+        }
+        synchronized (lock) {
+            if (started) {
+                return;
+            }
+            long purged = userChangeRepository.findFirstSeq()
+                    .map(seq -> seq - 1)
+                    .orElseGet(userChangeRepository::findLastAssignedSeq);
+            long from = userChangeRepository.findLastSeqOlderThan(START_LOOKBACK).orElse(purged);
+            purgedThrough = Math.max(purgedThrough, purged);
+            relayedSeq = from;
+            bufferFrom = from;
+            started = true;
+        }
+    }
+
+    /**
+     * Relays one batch, up to the first gap that may still be filled
+     *
+     * @return The number of changes relayed
+     */
+    int relayBatch() {
+        long last = relayedSeq;
+        List<UserChange> rows = userChangeRepository.findAfter(last, Long.MAX_VALUE, batchSize);
+
+        List<UserChange> relayed = new ArrayList<>(rows.size());
+        TransactionSnapshot snapshot = null;
+        for (UserChange change : rows) {
+            if (change.seq() != last + 1) {
+                // Taken after the rows were read, so it includes the transaction of any missing sequence number
+                if (snapshot == null) {
+                    snapshot = userChangeRepository.currentSnapshot();
+                }
+                if (!canSkipGap(last, snapshot)) {
+                    break;
+                }
+            }
+            relayed.add(change);
+            last = change.seq();
+        }
+
+        if (!relayed.isEmpty()) {
+            publish(relayed);
+        }
+        return relayed.size();
+    }
+
+    /**
+     * Whether the sequence numbers after {@code after} can no longer be committed. The first time a gap is
+     * seen, the next transaction id is noted; once every transaction below it has ended, nothing can fill the gap.
+     */
+    private boolean canSkipGap(long after, TransactionSnapshot snapshot) {
+        if (gapAfter != after) {
+            gapAfter = after;
+            gapXmax = snapshot.xmax();
+            gapSeenNanos = System.nanoTime();
+            return false;
+        }
+        return System.nanoTime() - gapSeenNanos >= GAP_GRACE_NANOS && snapshot.xmin() >= gapXmax;
+    }
+
+    private void publish(List<UserChange> changes) {
+        List<Waiter> ready = new ArrayList<>();
+        List<UserChangeFeed> results = new ArrayList<>();
+        synchronized (lock) {
+            for (UserChange change : changes) {
+                if (bufferCount == buffer.length) {
+                    bufferFrom = buffer[bufferHead].seq();
+                    bufferHead = (bufferHead + 1) % buffer.length;
+                    bufferCount--;
+                }
+                buffer[(bufferHead + bufferCount) % buffer.length] = change;
+                bufferCount++;
+            }
+            relayedSeq = changes.get(changes.size() - 1).seq();
+
+            for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+                Waiter waiter = it.next();
+                if (waiter.since() < relayedSeq) {
+                    it.remove();
+                    ready.add(waiter);
+                    // A waiter that fell behind the buffer gets an empty feed and reads the table on its next request
+                    results.add(waiter.since() >= bufferFrom ? readBuffer(waiter.since(), waiter.limit()) : feed(List.of(), waiter.since()));
+                }
+            }
+        }
+        // Completed outside the lock: completion dispatches the response
+        for (int i = 0; i < ready.size(); i++) {
+            ready.get(i).result().complete(results.get(i));
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Changes after {@code from} from the buffer; the caller holds the lock and checked that the buffer covers {@code from}
+     */
+    private UserChangeFeed readBuffer(long from, int limit) {
+        // Binary search for the first change after from
+        int low = 0;
+        int high = bufferCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer[(bufferHead + mid) % buffer.length].seq() <= from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int count = Math.min(limit, bufferCount - low);
+        List<UserChange> changes = new ArrayList<>(count);
+        for (int i = low; i < low + count; i++) {
+            changes.add(buffer[(bufferHead + i) % buffer.length]);
+        }
+        return feed(changes, from);
+    }
+
+    private static UserChangeFeed feed(List<UserChange> changes, long from) {
+        return new UserChangeFeed(changes, changes.isEmpty() ? from : changes.get(changes.size() - 1).seq());
+    }
+
+    /**
+     * A long poll waiting for changes after {@code since}
+     */
+    private record Waiter(long since, int limit, CompletableFuture<UserChangeFeed> result) {
+    }
+}
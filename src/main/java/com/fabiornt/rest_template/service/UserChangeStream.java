@@ -0,0 +1,283 @@
+package com.fabiornt.rest_template.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fabiornt.rest_template.domain.model.UserChange;
+import com.fabiornt.rest_template.domain.model.UserChangeFeed;
+
+/**
+ * Server-Sent Events stream of user changes ({@code GET /api/users/stream}).
+ *
+ * <p>Subscribers don't get a queue or a thread each. They read the relay's ring buffer of changes, written
+ * by the relay thread alone, from their own position. After each relayed batch every subscriber is scheduled
+ * once on a small pool of {@code api.stream.send-threads} threads, which writes everything it hasn't seen yet
+ * with one flush. A subscriber whose position has been overwritten in the buffer, because its client reads
+ * too slowly, gets a {@code resync} event and continues from the current position. A write that fails drops it.
+ * The relay never waits for a subscriber.
+ *
+ * <p>A blocked write can't be interrupted; it ends when the client reads or the connector's write timeout
+ * expires. A subscriber whose write takes longer than {@code api.stream.write-timeout} is dropped instead, and
+ * the pool gets an extra thread until that write returns, so stalled clients don't hold up the others.
+ * Its stream is closed when the write returns, and the client reconnects with {@code Last-Event-ID}.
+ *
+ * <p>Events are {@code change} (the change as JSON, with its sequence number as event id) and {@code resync}
+ * (reload the users; sent on connect too). Reconnecting with {@code Last-Event-ID} resumes after that change.
+ * Streams are closed when the application stops, before the web server waits for active requests to finish.
+ */
+@Service
+public class UserChangeStream implements SmartLifecycle {
+
+    static final String CHANGE_EVENT = "change";
+    static final String RESYNC_EVENT = "resync";
+
+    // Values of Subscriber.writeStartedNanos other than a start time
+    private static final long NOT_WRITING = Long.MIN_VALUE;
+    private static final long DROPPED = Long.MIN_VALUE + 1;
+
+    private final UserChangeRelay userChangeRelay;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    @Autowired
+    public UserChangeStream(UserChangeRelay userChangeRelay,
+                            @Value("${api.stream.timeout:30m}") Duration timeout,
+                            @Value("${api.stream.write-timeout:5s}") Duration writeTimeout,
+                            @Value("${api.stream.send-threads:4}") int sendThreads,
+                            @Value("${api.changes.batch-size:1000}") int batchSize) {
+        this.userChangeRelay = userChangeRelay;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.batchSize = batchSize;
+        // Unbounded, but a subscriber is never queued twice
+        this.executor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("user-stream-"));
+        userChangeRelay.addListener(this::scheduleAll);
+    }
+
+    /**
+     * Subscribe to user changes
+     *
+     * @param lastEventId The id of the last change the client received, or null to start at the current position
+     * @return The emitter of the stream
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        long position = userChangeRelay.getPosition();
+        Subscriber subscriber = new Subscriber(emitter, position);
+
+        try {
+            if (lastEventId != null && userChangeRelay.getBufferedChanges(lastEventId, 1).isPresent()) {
+                subscriber.position = lastEventId;
+            } else {
+                emitter.send(resyncEvent(position));
+            }
+        } catch (IOException e) {
+            // Not sent yet: the emitter only buffers until the response starts
+            throw new IllegalStateException(e);
+        }
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Changes relayed since the position was taken
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * @return The number of open streams
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sends a comment to every subscriber, so proxies keep idle streams open and closed connections are noticed
+     */
+    @Scheduled(fixedDelayString = "${api.stream.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Drops subscribers whose current write has taken longer than the write timeout, and replaces the pool
+     * thread each of them blocks
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStartedNanos.get();
+            if (started != NOT_WRITING && started != DROPPED && now - started > writeTimeoutNanos
+                    && subscriber.writeStartedNanos.compareAndSet(started, DROPPED)) {
+                subscribers.remove(subscriber);
+                resizePool(1);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void scheduleAll() {
+        subscribers.forEach(this::schedule);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Stopping: the stream is being completed
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes everything the subscriber hasn't seen, in batches of one flush each
+     */
+    private void send(Subscriber subscriber) {
+        try {
+            while (true) {
+                Optional<UserChangeFeed> feed = userChangeRelay.getBufferedChanges(subscriber.position, batchSize);
+                if (feed.isEmpty()) {
+                    // Overwritten before the client read it
+                    long position = userChangeRelay.getPosition();
+                    write(subscriber, resyncEvent(position).build());
+                    subscriber.position = position;
+                    continue;
+                }
+                if (feed.get().changes().isEmpty()) {
+                    break;
+                }
+                Set<DataWithMediaType> events = new LinkedHashSet<>();
+                for (UserChange change : feed.get().changes()) {
+                    events.addAll(SseEmitter.event()
+                            .id(Long.toString(change.seq()))
+                            .name(CHANGE_EVENT)
+                            .data(change, MediaType.APPLICATION_JSON)
+                            .build());
+                }
+                write(subscriber, events);
+                subscriber.position = feed.get().next();
+                subscriber.heartbeatDue = false;
+            }
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                write(subscriber, SseEmitter.event().comment("heartbeat").build());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream completed; the container completes the request
+            subscribers.remove(subscriber);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+
+        // Relayed after the last read, while this subscriber was still marked as scheduled
+        if (userChangeRelay.getPosition() > subscriber.position && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Writes and flushes events, closing the stream afterwards if the subscriber was dropped meanwhile
+     */
+    private void write(Subscriber subscriber, Set<DataWithMediaType> events) throws IOException {
+        subscriber.writeStartedNanos.set(System.nanoTime());
+        boolean dropped;
+        try {
+            subscriber.emitter.send(events);
+        } finally {
+            dropped = subscriber.writeStartedNanos.getAndSet(NOT_WRITING) == DROPPED;
+            if (dropped) {
+                resizePool(-1);
+            }
+        }
+        if (dropped) {
+            subscriber.emitter.complete();
+            throw new IOException("Write took longer than " + Duration.ofNanos(writeTimeoutNanos));
+        }
+    }
+
+    private synchronized void resizePool(int delta) {
+        int size = executor.getCorePoolSize() + delta;
+        // The maximum can't be below the core size
+        if (delta > 0) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder resyncEvent(long position) {
+        return SseEmitter.event()
+                .id(Long.toString(position))
+                .name(RESYNC_EVENT)
+                .data(Map.of("next", position), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * An open stream, the sequence number of the last change written to it and when its current write started
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong writeStartedNanos = new AtomicLong(NOT_WRITING);
+        private volatile long position;
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
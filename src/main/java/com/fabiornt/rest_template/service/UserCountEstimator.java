@@ -0,0 +1,51 @@
+package com.fabiornt.rest_template.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fabiornt.rest_template.repository.UserRepository;
+
+/**
+ * Provides an approximate number of users from PostgreSQL table statistics.
+ * The value is cached for a configurable time so most requests don't touch the database at all.
+ */
+@Component
+public class UserCountEstimator {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+
+    private volatile CachedEstimate cached;
+
+    @Autowired
+    public UserCountEstimator(UserRepository userRepository,
+                              @Value("${api.pagination.count-estimate-ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the estimated number of users.
+     * Falls back to an exact count when the table has never been analyzed.
+     *
+     * @return Estimated number of users
+     */
+    public long estimate() {
+        CachedEstimate current = cached;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAt() < ttlNanos) {
+            return current.value();
+        }
+
+        Long estimate = userRepository.estimateCount();
+        long value = estimate != null && estimate >= 0 ? estimate : userRepository.count();
+        cached = new CachedEstimate(value, now);
+        return value;
+    }
+
+    private record CachedEstimate(long value, long loadedAt) {
+    }
+}
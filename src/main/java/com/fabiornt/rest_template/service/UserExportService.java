@@ -0,0 +1,228 @@
+package com.fabiornt.rest_template.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.fabiornt.rest_template.domain.model.ExportFormat;
+import com.fabiornt.rest_template.domain.model.ExportJob;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.exception.ExportNotReadyException;
+import com.fabiornt.rest_template.exception.ResourceNotFoundException;
+import com.fabiornt.rest_template.exception.TooManyExportsException;
+import com.fabiornt.rest_template.util.CsvConverter;
+import com.fabiornt.rest_template.util.NdjsonConverter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs exports of all users in the background and keeps the resulting files on local disk.
+ *
+ * <p>Jobs run on a dedicated fixed-size pool with a bounded queue, so exports can't take more than
+ * {@code api.export.max-concurrent} database connections; a job that doesn't fit in the queue is rejected.
+ * Each job streams users through {@link UserService#exportUsers} into a {@code .part} file that is renamed
+ * when complete. Jobs are kept in memory and, once finished, removed with their file after the TTL.
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final UserService userService;
+    private final Path directory;
+    private final Duration ttl;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserExportService(UserService userService,
+                             @Value("${api.export.directory:${java.io.tmpdir}/rest-template-exports}") Path directory,
+                             @Value("${api.export.max-concurrent:2}") int maxConcurrent,
+                             @Value("${api.export.queue-capacity:8}") int queueCapacity,
+                             @Value("${api.export.ttl:1h}") Duration ttl) throws IOException {
+        this.userService = userService;
+        this.directory = Files.createDirectories(directory);
+        this.ttl = ttl;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("user-export-"));
+    }
+
+    /**
+     * Queue an export of all users
+     *
+     * @param format The file format
+     * @return The queued job
+     * @throws TooManyExportsException if the export queue is full
+     */
+    public ExportJob startExport(ExportFormat format) {
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), format, Instant.now());
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new TooManyExportsException(queueCapacity);
+        }
+        return job;
+    }
+
+    /**
+     * Get an export job
+     *
+     * @param id The job ID
+     * @return The job, or empty if it doesn't exist or has expired
+     */
+    public Optional<ExportJob> getExport(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Get a completed export job, whose file can be downloaded
+     *
+     * @param id The job ID
+     * @return The completed job
+     * @throws ResourceNotFoundException if the job doesn't exist or has expired
+     * @throws ExportNotReadyException if the job hasn't completed
+     */
+    public ExportJob getCompletedExport(String id) {
+        ExportJob job = getExport(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Export", "id", id));
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new ExportNotReadyException(id, job.getStatus());
+        }
+        return job;
+    }
+
+    /**
+     * Cancel an export job if it is still queued or running, and delete its file
+     *
+     * @param id The job ID
+     * @throws ResourceNotFoundException if the job doesn't exist or has expired
+     */
+    public void deleteExport(String id) {
+        ExportJob job = jobs.remove(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export", "id", id);
+        }
+        job.cancel();
+        if (job.getFile() != null) {
+            // Downloads in progress keep reading the open file
+            deleteQuietly(job.getFile());
+        }
+    }
+
+    /**
+     * Removes finished jobs older than the TTL together with their files, and files no job refers to,
+     * e.g. those left by a previous run of the application.
+     */
+    @Scheduled(fixedDelayString = "${api.export.cleanup-interval:1m}")
+    public void removeExpiredExports() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> {
+            boolean expired = job.getExpiresAt() != null && now.isAfter(job.getExpiresAt());
+            if (expired && job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return expired;
+        });
+
+        Set<String> fileNames = new HashSet<>();
+        for (ExportJob job : jobs.values()) {
+            fileNames.add(job.getFileName());
+            fileNames.add(job.getFileName() + PART_SUFFIX);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> !fileNames.contains(file.getFileName().toString()))
+                .filter(file -> isOlderThan(file, now.minus(ttl)))
+                .forEach(UserExportService::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not list export directory {}", directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(ExportJob::cancel);
+        executor.shutdownNow();
+    }
+
+    private void run(ExportJob job) {
+        if (job.isCancelled()) {
+            return;
+        }
+        Path part = directory.resolve(job.getFileName() + PART_SUFFIX);
+        try {
+            job.started(userService.countUsers());
+            try (Writer writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                userService.exportUsers(users -> write(job, users.peek(user -> {
+                    if (job.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    job.rowWritten();
+                }), writer));
+            }
+            Path file = Files.move(part, directory.resolve(job.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            Instant now = Instant.now();
+            job.completed(file, Files.size(file), now, now.plus(ttl));
+        } catch (Exception e) {
+            deleteQuietly(part);
+            if (!job.isCancelled()) {
+                log.warn("Export {} failed", job.getId(), e);
+                Instant now = Instant.now();
+                job.failed(e.getMessage(), now, now.plus(ttl));
+            }
+        }
+    }
+
+    private static void write(ExportJob job, Stream<UserView> users, Writer writer) {
+        switch (job.getFormat()) {
+            case NDJSON -> NdjsonConverter.writeNdjson(users, writer);
+            default -> CsvConverter.writeCsv(users, writer);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant instant) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(instant);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", file, e);
+        }
+    }
+}
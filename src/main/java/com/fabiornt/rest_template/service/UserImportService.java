@@ -0,0 +1,221 @@
+package com.fabiornt.rest_template.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.ImportSummary;
+import com.fabiornt.rest_template.exception.InvalidImportFileException;
+import com.fabiornt.rest_template.util.BoundedLineReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.opencsv.CSVParser;
+
+/**
+ * Imports users from NDJSON or CSV request bodies of any size.
+ *
+ * <p>The body is read one line at a time and records are handed to {@link UserBatchService#createUsers}
+ * in batches of {@code api.import.batch-size}, each committed in its own transaction. The next batch is
+ * only read once the previous one is committed, so a client sending faster than the database can insert
+ * is slowed down by TCP flow control. Memory is bounded by one batch, one line of at most
+ * {@code api.import.max-line-length} characters and {@code api.import.max-reported-rejections} listed rejections.
+ * Batches committed before a failure stay committed.
+ */
+@Service
+public class UserImportService {
+
+    private static final String[] REQUIRED_CSV_COLUMNS = {"username", "email", "password"};
+
+    private final UserBatchService userBatchService;
+    private final ObjectReader userReader;
+    private final int batchSize;
+    private final int maxLineLength;
+    private final int maxReportedRejections;
+
+    @Autowired
+    public UserImportService(UserBatchService userBatchService, ObjectMapper objectMapper,
+                             @Value("${api.import.batch-size:1000}") int batchSize,
+                             @Value("${api.import.max-line-length:65536}") int maxLineLength,
+                             @Value("${api.import.max-reported-rejections:1000}") int maxReportedRejections) {
+        this.userBatchService = userBatchService;
+        this.userReader = objectMapper.readerFor(User.class);
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Import users from newline-delimited JSON, one user object per line. Blank lines are skipped.
+     *
+     * @param body The request body
+     * @return Accepted and rejected counts, with the line numbers of rejected records
+     * @throws IOException if reading the body fails
+     */
+    public ImportSummary importNdjson(InputStream body) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength);
+        Import current = new Import();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long lineNumber = reader.getLineNumber();
+            if (reader.isLastLineTooLong()) {
+                current.reject(lineNumber, "Line exceeds " + maxLineLength + " characters");
+            } else if (!line.isBlank()) {
+                try {
+                    current.add(lineNumber, userReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    current.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return current.finish();
+    }
+
+    /**
+     * Import users from CSV. The first line is a header naming the columns: the columns of
+     * {@code CsvConverter} ({@code id}, ignored on import, {@code username}, {@code email}) plus {@code password},
+     * in any order. Blank lines are skipped; quoted fields can't span lines.
+     *
+     * @param body The request body
+     * @return Accepted and rejected counts, with the line numbers of rejected records
+     * @throws IOException if reading the body fails
+     * @throws InvalidImportFileException if the header is missing a required column
+     */
+    public ImportSummary importCsv(InputStream body) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength);
+        CSVParser parser = new CSVParser();
+        Import current = new Import();
+
+        Map<String, Integer> columns = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long lineNumber = reader.getLineNumber();
+            if (reader.isLastLineTooLong()) {
+                if (columns == null) {
+                    throw new InvalidImportFileException("CSV header exceeds " + maxLineLength + " characters");
+                }
+                current.reject(lineNumber, "Line exceeds " + maxLineLength + " characters");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            String[] fields;
+            try {
+                fields = parser.parseLine(line);
+            } catch (IOException e) {
+                if (columns == null) {
+                    throw new InvalidImportFileException("Malformed CSV header: " + e.getMessage());
+                }
+                current.reject(lineNumber, "Malformed CSV: " + e.getMessage());
+                continue;
+            }
+
+            if (columns == null) {
+                columns = csvColumns(fields);
+            } else {
+                User user = new User();
+                user.setUsername(field(fields, columns.get("username")));
+                user.setEmail(field(fields, columns.get("email")));
+                user.setPassword(field(fields, columns.get("password")));
+                current.add(lineNumber, user);
+            }
+        }
+        return current.finish();
+    }
+
+    private static Map<String, Integer> csvColumns(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            // A UTF-8 byte order mark may precede the first column name
+            String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidImportFileException("CSV header is missing the column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length ? fields[index] : null;
+    }
+
+    /**
+     * State of one import: the pending batch and the running totals.
+     */
+    private final class Import {
+
+        private final List<User> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<ImportSummary.Rejection> rejections = new ArrayList<>();
+        private long records;
+        private long accepted;
+        private long rejected;
+
+        void add(long line, User user) {
+            records++;
+            batch.add(user);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String error) {
+            records++;
+            reject(line, List.of(error));
+        }
+
+        private void reject(long line, List<String> errors) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new ImportSummary.Rejection(line, errors));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            // Results are in batch order; only the status and errors are kept
+            for (BatchItemResult<User> result : userBatchService.createUsers(batch)) {
+                if (result.getStatus() == HttpStatus.CREATED) {
+                    accepted++;
+                } else {
+                    reject(batchLines.get(result.getIndex()), result.getErrors());
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        ImportSummary finish() {
+            flush();
+            return ImportSummary.builder()
+                    .records(records)
+                    .accepted(accepted)
+                    .rejected(rejected)
+                    .rejections(rejections)
+                    .rejectionsTruncated(rejected > rejections.size())
+                    .build();
+        }
+    }
+}
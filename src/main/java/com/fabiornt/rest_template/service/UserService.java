@@ -1,37 +1,97 @@
 package com.fabiornt.rest_template.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.EstimatedPage;
+import com.fabiornt.rest_template.domain.model.StoredPassword;
+import com.fabiornt.rest_template.domain.model.UserChange;
+import com.fabiornt.rest_template.domain.model.UserFilter;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.exception.BatchTooLargeException;
 import com.fabiornt.rest_template.exception.EmailAlreadyExistsException;
+import com.fabiornt.rest_template.exception.PreconditionFailedException;
 import com.fabiornt.rest_template.exception.ResourceNotFoundException;
+import com.fabiornt.rest_template.repository.UserChangeRepository;
 import com.fabiornt.rest_template.repository.UserRepository;
+import com.fabiornt.rest_template.repository.UserSpecifications;
 
 @Service
 public class UserService
 {
     private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final UserCountEstimator userCountEstimator;
+    private final UserCache userCache;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CountStrategy defaultCountStrategy;
+    private final int maxLookupSize;
 
     @Autowired
-    public UserService(UserRepository userRepository){
+    public UserService(UserRepository userRepository, UserChangeRepository userChangeRepository,
+                       UserCountEstimator userCountEstimator, UserCache userCache,
+                       PasswordHasher passwordHasher, PlatformTransactionManager transactionManager,
+                       @Value("${api.pagination.count-strategy:exact}") String defaultCountStrategy,
+                       @Value("${api.lookup.max-size:1000}") int maxLookupSize){
         this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.userCountEstimator = userCountEstimator;
+        this.userCache = userCache;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.defaultCountStrategy = CountStrategy.from(defaultCountStrategy);
+        this.maxLookupSize = maxLookupSize;
     }
 
+    /**
+     * Create a user. Email uniqueness is enforced by the unique index on users.email,
+     * so there is no separate lookup before the insert and concurrent creates can't both succeed.
+     * The password is hashed before the insert's transaction starts, so no connection is held while hashing.
+     * The change is recorded in the outbox in the same transaction.
+     *
+     * @param user The user to create
+     * @return The created user
+     */
     public User createUser(User user)
     {
-        // Check if email already exists
-        userRepository.findByEmail(user.getEmail())
-            .ifPresent(existingUser -> {
-                throw new EmailAlreadyExistsException(user.getEmail());
-            });
+        // Ids are generated; a client-supplied id must not turn the insert into an update
+        user.setId(null);
+        user.setPassword(passwordHasher.hash(user.getPassword()));
 
-        return userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            User savedUser = saveCheckingEmail(user);
+            recordChange(savedUser, UserChange.Operation.CREATED);
+            return savedUser;
+        });
     }
 
     /**
@@ -53,67 +113,289 @@ public class UserService
         return userRepository.findAll(pageable);
     }
 
-    public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+    /**
+     * Get user views with pagination, counting the total as requested.
+     * With {@link CountStrategy#EXACT} the result is a {@link Page}, with {@link CountStrategy#NONE}
+     * a plain {@link Slice}, and with {@link CountStrategy#ESTIMATE} an {@link EstimatedPage}.
+     * The estimate covers the whole table, so filtered pages are never estimated: they are counted
+     * exactly with {@link CountStrategy#EXACT} and otherwise not at all.
+     *
+     * @param filter Filters the users must match
+     * @param pageable Pagination information
+     * @param countStrategy How to count the total, or null for the configured default
+     * @return Slice of user views
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserView> getAllUsers(UserFilter filter, Pageable pageable, CountStrategy countStrategy) {
+        CountStrategy strategy = countStrategy != null ? countStrategy : defaultCountStrategy;
+        if (!filter.isEmpty()) {
+            Specification<User> specification = UserSpecifications.matching(filter);
+            return strategy == CountStrategy.EXACT
+                    ? userRepository.findViews(specification, pageable)
+                    : userRepository.findViewSlice(specification, pageable);
+        }
+
+        switch (strategy) {
+            case NONE:
+                return userRepository.findAllViewsBy(pageable);
+            case ESTIMATE:
+                Slice<UserView> slice = userRepository.findAllViewsBy(pageable);
+                long seen = pageable.getOffset() + slice.getNumberOfElements();
+                // The estimate may be stale: a page with more rows after it needs at least one more element,
+                // and the last page tells us the exact total.
+                long total = slice.hasNext() ? Math.max(userCountEstimator.estimate(), seen + 1) : seen;
+                return new EstimatedPage<>(slice.getContent(), pageable, total);
+            default:
+                return userRepository.findAllViews(pageable);
+        }
     }
 
-    public User updateUser(Long id, User userDetails) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+    /**
+     * Get the version of the users table, which changes whenever a user is created, updated or deleted.
+     * Used to answer conditional requests on user collections without loading any page.
+     *
+     * @return The version, maintained by the database in a 16-row table
+     */
+    @Transactional(readOnly = true)
+    public long getUsersVersion() {
+        return userRepository.findUsersVersion();
+    }
+
+    /**
+     * Count all users
+     *
+     * @return The number of users
+     */
+    @Transactional(readOnly = true)
+    public long countUsers() {
+        return userRepository.count();
+    }
 
-        // Check if email is being changed and if it already exists
-        if (!user.getEmail().equals(userDetails.getEmail())) {
-            userRepository.findByEmail(userDetails.getEmail())
-                .ifPresent(existingUser -> {
-                    throw new EmailAlreadyExistsException(userDetails.getEmail());
-                });
+    /**
+     * Get user views with keyset (cursor) pagination
+     *
+     * @param filter Filters the users must match
+     * @param afterId Only users with a greater id are returned
+     * @param size Maximum number of users to return
+     * @return Slice of user views ordered by id
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserView> getUsersAfter(UserFilter filter, Long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size, UserSort.DEFAULT);
+        if (!filter.isEmpty()) {
+            return userRepository.findViewSlice(
+                    UserSpecifications.idGreaterThan(afterId).and(UserSpecifications.matching(filter)), pageable);
+        }
+        return userRepository.findViewsByIdGreaterThan(afterId, pageable);
+    }
+
+    /**
+     * Stream all user views ordered by id through a forward-only database cursor.
+     * Views are not managed entities, so the persistence context does not grow with the size of the table.
+     *
+     * @param consumer Receives the stream while the read transaction is still open
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<Stream<UserView>> consumer) {
+        try (Stream<UserView> users = userRepository.streamAllViewsOrderedById()) {
+            consumer.accept(users);
         }
+    }
 
-        user.setUsername(userDetails.getUsername());
-        user.setEmail(userDetails.getEmail());
-        user.setPassword(userDetails.getPassword());
-        return userRepository.save(user);
+    /**
+     * Get a user by id, served from the user cache when possible.
+     * A cache miss is loaded in a read-only transaction, so it can go to the replica;
+     * a hit borrows no connection at all.
+     *
+     * @param id The user ID
+     * @return The user view, or empty if it doesn't exist
+     */
+    public Optional<UserView> getUserById(Long id) {
+        return userCache.getById(id, key -> readOnly(() -> userRepository.findViewById(key)));
     }
 
+    /**
+     * Get users by id, in request order. Users in the user cache are served from it,
+     * and all the others are loaded with one IN query and cached.
+     *
+     * @param ids The user IDs; an id may appear more than once
+     * @return One result per id, in request order, with the user or a 404 status when it doesn't exist
+     */
+    public List<BatchItemResult<UserView>> getUsersByIds(List<Long> ids) {
+        if (ids.size() > maxLookupSize) {
+            throw new BatchTooLargeException(ids.size(), maxLookupSize);
+        }
+
+        Set<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, UserView> found = distinctIds.isEmpty()
+                ? Map.of()
+                : userCache.getAllById(distinctIds, missing -> readOnly(() -> userRepository.findViewsByIdIn(missing)));
+
+        List<BatchItemResult<UserView>> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            UserView user = id != null ? found.get(id) : null;
+            if (user != null) {
+                results.add(BatchItemResult.success(i, id, HttpStatus.OK, user));
+            } else {
+                results.add(BatchItemResult.failure(i, id, HttpStatus.NOT_FOUND,
+                        String.format("User not found with id: '%s'", id)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get a user by email, served from the user cache when possible.
+     * A cache miss is loaded in a read-only transaction, like {@link #getUserById}.
+     *
+     * @param email The email address
+     * @return The user view, or empty if it doesn't exist
+     */
+    public Optional<UserView> findByEmail(String email) {
+        return userCache.getByEmail(email, key -> readOnly(() -> userRepository.findViewByEmail(key)));
+    }
+
+    /**
+     * Replace all fields of a user. The new password is always hashed with the current algorithm and cost,
+     * so the stored hash is upgraded whenever the password is sent again.
+     *
+     * @param id The user ID
+     * @param userDetails The new field values
+     * @param expectedVersion The version the client last saw (from If-Match), or null to skip the check
+     * @return The updated user
+     */
+    public User updateUser(Long id, User userDetails, Long expectedVersion) {
+        // Hashed before the transaction starts, so no connection is held while hashing
+        String password = passwordHasher.hash(userDetails.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            User user = findForUpdate(id, expectedVersion);
+
+            String previousEmail = user.getEmail();
+            Long previousVersion = user.getVersion();
+            user.setUsername(userDetails.getUsername());
+            user.setEmail(userDetails.getEmail());
+            user.setPassword(password);
+            User savedUser = saveCheckingEmail(user);
+            recordUpdate(savedUser, previousVersion);
+            userCache.evict(id, previousEmail, savedUser.getEmail());
+            return savedUser;
+        });
+    }
+
+    /**
+     * Delete a user, recording the change in the outbox in the same transaction
+     *
+     * @param id The user ID
+     */
+    @Transactional
     public void deleteUser(Long id) {
         // Check if user exists before deletion
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
         userRepository.delete(user);
+        userChangeRepository.append(List.of(UserChange.of(id, UserChange.Operation.DELETED, null)));
+        userCache.evict(id, user.getEmail());
     }
 
     /**
-     * Partially update a user with the provided fields
+     * Partially update a user with the provided fields. A new password is hashed with the current algorithm
+     * and cost; without one, a password still stored as plain text is hashed in passing.
      *
      * @param id The user ID
      * @param userPatch The user object with fields to update
+     * @param expectedVersion The version the client last saw (from If-Match), or null to skip the check
      * @return The updated user
      */
-    public User patchUser(Long id, User userPatch) {
+    public User patchUser(Long id, User userPatch, Long expectedVersion) {
+        // Hashed before the transaction starts, so no connection is held while hashing
+        String password = userPatch.getPassword() != null ? passwordHasher.hash(userPatch.getPassword()) : null;
+        // Rows written before hashing was introduced are hashed in passing, also outside the transaction;
+        // an outdated hash needs the raw password to be upgraded
+        Optional<StoredPassword> plainText = password != null ? Optional.empty()
+                : readOnly(() -> userRepository.findStoredPasswordById(id))
+                        .filter(stored -> passwordHasher.isPlainText(stored.password()));
+        String rehashed = plainText.map(stored -> passwordHasher.hash(stored.password())).orElse(null);
+
+        return transactionTemplate.execute(status -> {
+            User user = findForUpdate(id, expectedVersion);
+
+            String previousEmail = user.getEmail();
+            Long previousVersion = user.getVersion();
+
+            // Only update fields that are not null
+            if (userPatch.getUsername() != null) {
+                user.setUsername(userPatch.getUsername());
+            }
+
+            if (userPatch.getEmail() != null) {
+                user.setEmail(userPatch.getEmail());
+            }
+
+            if (password != null) {
+                user.setPassword(password);
+            } else if (rehashed != null && plainText.get().version().equals(previousVersion)) {
+                // Not changed since it was hashed; otherwise a later patch hashes it
+                user.setPassword(rehashed);
+            }
+
+            User savedUser = saveCheckingEmail(user);
+            recordUpdate(savedUser, previousVersion);
+            userCache.evict(id, previousEmail, savedUser.getEmail());
+            return savedUser;
+        });
+    }
+
+    /**
+     * Loads a user to modify it, checking the version the client expects.
+     * A concurrent update after this check is still caught by the @Version check when the change is flushed.
+     */
+    private User findForUpdate(Long id, Long expectedVersion) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
-        // Only update fields that are not null
-        if (userPatch.getUsername() != null) {
-            user.setUsername(userPatch.getUsername());
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException("User", id);
         }
+        return user;
+    }
 
-        if (userPatch.getEmail() != null) {
-            // Check if email is being changed and if it already exists
-            if (!user.getEmail().equals(userPatch.getEmail())) {
-                userRepository.findByEmail(userPatch.getEmail())
-                    .ifPresent(existingUser -> {
-                        throw new EmailAlreadyExistsException(userPatch.getEmail());
-                    });
-            }
-            user.setEmail(userPatch.getEmail());
-        }
+    /**
+     * Runs a query in a read-only transaction. Declared query methods get no transaction from Spring Data,
+     * and without the read-only flag the connection would come from the primary.
+     */
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransactionTemplate.execute(status -> query.get());
+    }
+
+    private void recordChange(User user, UserChange.Operation operation) {
+        userChangeRepository.append(List.of(UserChange.of(user.getId(), operation, user.getVersion())));
+    }
 
-        if (userPatch.getPassword() != null) {
-            user.setPassword(userPatch.getPassword());
+    /**
+     * Records an update in the outbox, unless nothing changed and Hibernate wrote nothing
+     */
+    private void recordUpdate(User user, Long previousVersion) {
+        if (!user.getVersion().equals(previousVersion)) {
+            recordChange(user, UserChange.Operation.UPDATED);
         }
+    }
 
-        return userRepository.save(user);
+    /**
+     * Saves and flushes a user, turning a violation of the unique email index into an EmailAlreadyExistsException
+     */
+    private User saveCheckingEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (EmailAlreadyExistsException.isDuplicateEmail(ex)) {
+                throw new EmailAlreadyExistsException(user.getEmail());
+            }
+            throw ex;
+        }
     }
 }
@@ -0,0 +1,51 @@
+package com.fabiornt.rest_template.service;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+import com.fabiornt.rest_template.exception.InvalidRequestParameterException;
+
+/**
+ * Sort orders accepted by the users collection.
+ * Only indexed columns can be sorted on, so a sorted page never needs a full table sort.
+ */
+public class UserSort {
+
+    private static final Set<String> FIELDS = Set.of("id", "username", "email");
+
+    /**
+     * Sort by id, the order of keyset pagination.
+     */
+    public static final Sort DEFAULT = Sort.by("id").ascending();
+
+    /**
+     * Parses a sort parameter of the form {@code field} or {@code field,asc|desc}.
+     * Users with equal values are ordered by id, so pages are stable.
+     *
+     * @param value The sort parameter, or null
+     * @return The matching sort, or {@link #DEFAULT} when no value is given
+     * @throws InvalidRequestParameterException if the field can't be sorted on or the direction is unknown
+     */
+    public static Sort from(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+
+        String[] parts = value.split(",", -1);
+        String field = parts[0].trim();
+        if (parts.length > 2 || !FIELDS.contains(field)) {
+            throw new InvalidRequestParameterException("sort", value);
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim().toUpperCase(Locale.ROOT))
+                    .orElseThrow(() -> new InvalidRequestParameterException("sort", value));
+        }
+
+        Sort sort = Sort.by(direction, field);
+        return field.equals("id") ? sort : sort.and(DEFAULT);
+    }
+}
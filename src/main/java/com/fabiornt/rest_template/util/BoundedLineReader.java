@@ -0,0 +1,106 @@
+package com.fabiornt.rest_template.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines from a character stream without ever holding more than one line of bounded length.
+ * A line longer than the limit is skipped up to its end and reported through {@link #isLastLineTooLong()},
+ * so a single oversized record can't exhaust memory. Lines end with {@code \n} or {@code \r\n}.
+ */
+public class BoundedLineReader {
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private boolean lastLineTooLong;
+
+    public BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Reads the next line
+     *
+     * @return The line without its terminator, an empty string if it was too long, or null at the end of the stream
+     * @throws IOException if reading fails
+     */
+    public String readLine() throws IOException {
+        line.setLength(0);
+        lastLineTooLong = false;
+        boolean read = false;
+
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (!read) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            read = true;
+
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position);
+            if (position < limit) {
+                // Skip the newline
+                position++;
+                break;
+            }
+        }
+
+        lineNumber++;
+        if (lastLineTooLong) {
+            return "";
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(--length);
+        }
+        if (length > maxLineLength) {
+            lastLineTooLong = true;
+            return "";
+        }
+        return line.toString();
+    }
+
+    /**
+     * @return Number of the line last returned by {@link #readLine()}, starting at 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return Whether the line last returned by {@link #readLine()} exceeded the limit and was skipped
+     */
+    public boolean isLastLineTooLong() {
+        return lastLineTooLong;
+    }
+
+    private void append(int start, int end) {
+        if (lastLineTooLong) {
+            return;
+        }
+        // One extra character is allowed for the \r of a \r\n terminator
+        if (line.length() + (end - start) > maxLineLength + 1) {
+            lastLineTooLong = true;
+            line.setLength(0);
+            return;
+        }
+        line.append(buffer, start, end - start);
+    }
+}
@@ -1,9 +1,12 @@
 package com.fabiornt.rest_template.util;
 
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.UserView;
 import com.opencsv.CSVWriter;
 
 /**
@@ -11,6 +14,11 @@ import com.opencsv.CSVWriter;
  */
 public class CsvConverter {
 
+    /**
+     * Column layout shared by every CSV representation of users.
+     */
+    public static final String[] HEADER = {"id", "username", "email"};
+
     /**
      * Converts a list of UserModel objects to CSV format.
      *
@@ -22,17 +30,11 @@ public class CsvConverter {
              CSVWriter csvWriter = new CSVWriter(stringWriter)) {
 
             // Write header
-            String[] header = {"id", "username", "email"};
-            csvWriter.writeNext(header);
+            csvWriter.writeNext(HEADER);
 
             // Write data rows
             for (UserModel user : users) {
-                String[] row = {
-                    String.valueOf(user.getId()),
-                    user.getUsername(),
-                    user.getEmail()
-                };
-                csvWriter.writeNext(row);
+                csvWriter.writeNext(toRow(user.getId(), user.getUsername(), user.getEmail()));
             }
 
             csvWriter.flush();
@@ -41,4 +43,31 @@ public class CsvConverter {
             throw new RuntimeException("Error generating CSV", e);
         }
     }
+
+    /**
+     * Writes a stream of users as CSV directly to the given writer, row by row.
+     * Nothing is buffered beyond the writer itself, so the stream can be of any size.
+     * The writer is flushed but not closed.
+     *
+     * @param users Stream of users to write
+     * @param writer Destination of the CSV data
+     */
+    public static void writeCsv(Stream<UserView> users, Writer writer) {
+        try {
+            CSVWriter csvWriter = new CSVWriter(writer);
+            csvWriter.writeNext(HEADER);
+            users.forEach(user -> csvWriter.writeNext(toRow(user.id(), user.username(), user.email())));
+            csvWriter.flush();
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating CSV", e);
+        }
+    }
+
+    private static String[] toRow(Long id, String username, String email) {
+        return new String[] {
+            String.valueOf(id),
+            username,
+            email
+        };
+    }
 }
@@ -0,0 +1,55 @@
+package com.fabiornt.rest_template.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.fabiornt.rest_template.exception.InvalidRequestParameterException;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ * A cursor wraps the id of the last row of a page, so clients never depend on its format.
+ */
+public class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Cursor pointing before the first row of the collection.
+     */
+    public static final String START = encode(0L);
+
+    /**
+     * Encodes the given id as an opaque, URL-safe cursor.
+     *
+     * @param id The id of the last row already returned
+     * @return Opaque cursor
+     */
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously created by {@link #encode(Long)}.
+     * A blank cursor is read as the start of the collection.
+     *
+     * @param cursor The opaque cursor
+     * @return The id the next page starts after
+     * @throws InvalidRequestParameterException if the cursor is malformed
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidRequestParameterException("after", cursor);
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("after", cursor);
+        }
+    }
+}
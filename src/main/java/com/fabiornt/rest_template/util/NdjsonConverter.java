@@ -0,0 +1,48 @@
+package com.fabiornt.rest_template.util;
+
+import java.io.Writer;
+import java.util.stream.Stream;
+
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Utility class for converting users to newline-delimited JSON (one object per line).
+ * Objects have the same fields as the CSV columns.
+ */
+public class NdjsonConverter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Writes a stream of users as NDJSON directly to the given writer, line by line.
+     * The writer is flushed but not closed.
+     *
+     * @param users Stream of users to write
+     * @param writer Destination of the NDJSON data
+     */
+    public static void writeNdjson(Stream<UserView> users, Writer writer) {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)) {
+            users.forEach(user -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField(CsvConverter.HEADER[0], user.id());
+                    generator.writeStringField(CsvConverter.HEADER[1], user.username());
+                    generator.writeStringField(CsvConverter.HEADER[2], user.email());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (Exception e) {
+                    throw new RuntimeException("Error generating NDJSON", e);
+                }
+            });
+            generator.flush();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating NDJSON", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.fabiornt.rest_template.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fabiornt.rest_template.domain.model.StoredPassword;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.http.ApiErrorResponse;
+import com.fabiornt.rest_template.http.ApiResponse;
+import com.fabiornt.rest_template.metrics.SqlStatementCounter;
+
+class NativeHintsConfigTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTests() {
+        new NativeHintsConfig.ApiRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void responseBodiesCanBeSerialized() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ApiResponse.class.getMethod("getData"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(UserModel.class.getMethod("getUsername"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ApiErrorResponse.class.getMethod("getMessage"))).accepts(hints);
+    }
+
+    @Test
+    void reflectiveAccessIsRegistered() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserView.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(StoredPassword.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(SqlStatementCounter.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    void opencsvMessagesAreIncluded() {
+        assertThat(RuntimeHintsPredicates.resource().forBundle("opencsv")).accepts(hints);
+    }
+}
@@ -0,0 +1,161 @@
+package com.fabiornt.rest_template.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockCookie;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fabiornt.rest_template.domain.entity.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Routing of connections between primary and replica, wired like {@code ReplicaDataSourceConfig}
+ * with mocked pools standing in for the two databases.
+ */
+class ReplicaRoutingTests {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final ReplicaHealth replicaHealth = new ReplicaHealth(replica, Duration.ofSeconds(5));
+
+    private LazyConnectionDataSourceProxy dataSource;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, replicaHealth));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertThat(connectionInTransaction(true)).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void writeTransactionsUsePrimary() {
+        assertThat(connectionInTransaction(false)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void pinnedThreadReadsFromPrimary() {
+        ReplicaRoutingDataSource.pinToPrimary();
+        assertThat(connectionInTransaction(true)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void replicaDownReadsFromPrimary() {
+        replicaHealth.markDown(new SQLException("down"));
+        assertThat(connectionInTransaction(true)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void failedReplicaConnectionFallsBackToPrimary() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThat(connectionInTransaction(true)).isSameAs(primaryConnection);
+        assertThat(replicaHealth.isUp()).isFalse();
+    }
+
+    @Test
+    void readOnlyJpaTransactionsUseReplica() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(User.class.getPackageName());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect",
+                "hibernate.boot.allow_jdbc_metadata_access", "false"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+            transaction.setReadOnly(true);
+            Connection connection = transaction.execute(status -> EntityManagerFactoryUtils
+                    .getTransactionalEntityManager(entityManagerFactory)
+                    .unwrap(Session.class)
+                    .doReturningWork(c -> ((ConnectionProxy) c).getTargetConnection()));
+
+            assertThat(connection).isSameAs(replicaConnection);
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    @Test
+    void writesPinTheRequestAndOpenAWindow() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users"), response,
+                (req, res) -> pinned.set(ReplicaRoutingDataSource.isPinnedToPrimary()));
+        assertThat(pinned).isTrue();
+        assertThat(ReplicaRoutingDataSource.isPinnedToPrimary()).isFalse();
+
+        // The next read of the same client carries the cookie and stays on the primary
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/users/1");
+        read.setCookies(MockCookie.parse(response.getHeader("Set-Cookie")));
+        pinned.set(false);
+        filter.doFilter(read, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReplicaRoutingDataSource.isPinnedToPrimary()));
+        assertThat(pinned).isTrue();
+
+        // Other clients read from the replica
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReplicaRoutingDataSource.isPinnedToPrimary()));
+        assertThat(pinned).isFalse();
+    }
+
+    /**
+     * Runs a transaction and returns the physical connection its first statement was run on
+     */
+    private Connection connectionInTransaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            return ((ConnectionProxy) connection).getTargetConnection();
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.fabiornt.rest_template.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * The representation of a user collection, and so its ETag, follows the same preferences as the response.
+ */
+class ApiMediaTypesTests {
+
+    @Test
+    void defaultsToJson() {
+        assertThat(ApiMediaTypes.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ApiMediaTypes.negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ApiMediaTypes.negotiate("application/xml")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ApiMediaTypes.negotiate("not a media type")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void followsQualityValues() {
+        assertThat(ApiMediaTypes.negotiate("application/json, application/cbor;q=0.1")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ApiMediaTypes.negotiate("application/json;q=0.5, text/csv")).isEqualTo(ApiMediaTypes.TEXT_CSV);
+        assertThat(ApiMediaTypes.negotiate("text/csv;q=0, */*;q=0.1")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ApiMediaTypes.negotiate("application/json;q=0, application/*;q=0.5")).isEqualTo(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void prefersSpecificRangesOnTies() {
+        assertThat(ApiMediaTypes.negotiate("*/*, application/x-jackson-smile")).isEqualTo(ApiMediaTypes.APPLICATION_SMILE);
+        assertThat(ApiMediaTypes.negotiate("text/*")).isEqualTo(ApiMediaTypes.TEXT_CSV);
+    }
+
+    @Test
+    void singleUsersHaveNoCsv() {
+        assertThat(ApiMediaTypes.negotiate("text/csv", ApiMediaTypes.USER_TYPES)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(ApiMediaTypes.negotiate("text/csv, application/cbor;q=0.5", ApiMediaTypes.USER_TYPES))
+                .isEqualTo(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void namesRepresentations() {
+        assertThat(ApiMediaTypes.USER_COLLECTION_TYPES).extracting(ApiMediaTypes::representation)
+                .containsExactly("json", "csv", "cbor", "smile");
+    }
+}
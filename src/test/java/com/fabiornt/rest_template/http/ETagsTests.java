@@ -0,0 +1,42 @@
+package com.fabiornt.rest_template.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.exception.PreconditionFailedException;
+
+/**
+ * Each representation of a user gets its own strong ETag, while If-Match accepts any of them.
+ */
+class ETagsTests {
+
+    private static final UserView USER = new UserView(2L, "alice", "alice@example.com", 3L);
+
+    @Test
+    void representationsHaveDistinctETags() {
+        String json = ETags.forUser(USER, "json");
+        String cbor = ETags.forUser(USER, "cbor");
+
+        assertThat(json).isEqualTo("\"2-3-json\"");
+        assertThat(ETags.matches(json, cbor)).isFalse();
+        assertThat(ETags.matches("W/" + cbor, cbor)).isTrue();
+    }
+
+    @Test
+    void ifMatchAcceptsEveryRepresentation() {
+        assertThat(ETags.expectedUserVersion("\"2-3-json\"", 2L)).isEqualTo(3L);
+        assertThat(ETags.expectedUserVersion("\"1-9-json\", \"2-3-smile\"", 2L)).isEqualTo(3L);
+        assertThat(ETags.expectedUserVersion("*", 2L)).isNull();
+        assertThat(ETags.expectedUserVersion(null, 2L)).isNull();
+    }
+
+    @Test
+    void ifMatchRejectsOtherUsersAndWeakETags() {
+        assertThatThrownBy(() -> ETags.expectedUserVersion("\"21-3-json\"", 2L)).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.expectedUserVersion("W/\"2-3-json\"", 2L)).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETags.expectedUserVersion("\"2-x-json\"", 2L)).isInstanceOf(PreconditionFailedException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.fabiornt.rest_template.http;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Range handling of file downloads on the {@link Resource} path, which is taken whenever the request
+ * isn't Tomcat's own and so can't use sendfile.
+ */
+class FileResponsesTests {
+
+    private static final String CONTENT = "0123456789";
+    private static final String ETAG = "\"job-1\"";
+
+    @TempDir
+    Path dir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.writeString(dir.resolve("users.csv"), CONTENT);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DownloadController(file)).build();
+    }
+
+    @Test
+    void sendsWholeFileWithoutRange() throws Exception {
+        mockMvc.perform(get("/file"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void sendsSingleRange() throws Exception {
+        mockMvc.perform(get("/file").header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+                .andExpect(content().string("234"));
+    }
+
+    @Test
+    void sendsSuffixRange() throws Exception {
+        mockMvc.perform(get("/file").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    void rejectsRangePastEndOfFile() throws Exception {
+        mockMvc.perform(get("/file").header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void rejectsMalformedRange() throws Exception {
+        mockMvc.perform(get("/file").header(HttpHeaders.RANGE, "bytes=abc"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void sendsRangeWhenIfRangeMatches() throws Exception {
+        mockMvc.perform(get("/file").header(HttpHeaders.RANGE, "bytes=5-").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("56789"));
+    }
+
+    @Test
+    void sendsWholeFileWhenIfRangeDoesNotMatch() throws Exception {
+        for (String ifRange : new String[] {"\"job-2\"", "W/" + ETAG, "Tue, 01 Sep 2026 10:00:00 GMT"}) {
+            mockMvc.perform(get("/file").header(HttpHeaders.RANGE, "bytes=5-").header(HttpHeaders.IF_RANGE, ifRange))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                    .andExpect(content().string(CONTENT));
+        }
+    }
+
+    @RestController
+    static class DownloadController {
+
+        private final Path file;
+
+        DownloadController(Path file) {
+            this.file = file;
+        }
+
+        @GetMapping("/file")
+        ResponseEntity<Resource> download(HttpServletRequest request) throws IOException {
+            return FileResponses.download(file, MediaType.parseMediaType("text/csv"), "users.csv", ETAG, request);
+        }
+    }
+}
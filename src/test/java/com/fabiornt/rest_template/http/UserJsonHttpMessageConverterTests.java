@@ -0,0 +1,137 @@
+package com.fabiornt.rest_template.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.EstimatedPage;
+import com.fabiornt.rest_template.domain.model.UserModel;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The streaming converter must produce exactly the bytes Jackson produces for the same body.
+ */
+class UserJsonHttpMessageConverterTests {
+
+    // Configured like Spring Boot's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+    private final UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(objectMapper);
+
+    @Test
+    void singleUser() throws Exception {
+        assertSameJson(ApiResponse.<UserModel>builder().data(user(1)).status(HttpStatus.OK).build());
+        assertSameJson(ApiResponse.<UserModel>builder().data(user(2)).status(HttpStatus.CREATED)
+                .timestamp(LocalDateTime.of(2024, 1, 2, 3, 4, 5)).build());
+    }
+
+    @Test
+    void pagedUsers() throws Exception {
+        List<UserModel> users = users(3);
+        Link[] links = {
+            Link.of("http://localhost/api/users?page=1&size=3").withSelfRel(),
+            Link.of("http://localhost/api/users?page=0&size=3").withRel("first")
+        };
+        assertSameJson(PagedApiResponseCollection.fromPage(
+                new PageImpl<>(users, PageRequest.of(1, 3), 10), users, links, HttpStatus.OK));
+        assertSameJson(PagedApiResponseCollection.fromPage(
+                new SliceImpl<>(users, PageRequest.of(1, 3), true), users, links, HttpStatus.OK));
+        assertSameJson(PagedApiResponseCollection.fromPage(
+                new EstimatedPage<>(users, PageRequest.of(1, 3), 1000), users, null, HttpStatus.OK));
+        assertSameJson(PagedApiResponseCollection.fromPage(
+                new PageImpl<>(List.of(), PageRequest.of(0, 3), 0), List.<UserModel>of(), links, HttpStatus.OK));
+    }
+
+    @Test
+    void userCollection() throws Exception {
+        assertSameJson(ApiResponseCollection.<UserModel>builder().data(users(2)).status(HttpStatus.OK)
+                .links(new Link[] { Link.of("http://localhost/api/users?after=&size=2").withSelfRel() }).build());
+    }
+
+    @Test
+    void escapedAndMissingValues() throws Exception {
+        UserModel user = UserModel.builder().id(null).username("quote\" backslash\\ tab\t é   \u0001").email(null).build();
+        user.add(Link.of("http://localhost/api/users/1", "self").withTitle("Title"));
+        assertSameJson(ApiResponse.<UserModel>builder().data(user).status(null).timestamp(null).build());
+    }
+
+    @Test
+    void otherBodiesFallBackToJackson() throws Exception {
+        List<BatchItemResult<UserModel>> results = List.of(
+                BatchItemResult.success(0, 1L, HttpStatus.CREATED, user(1)),
+                BatchItemResult.failure(1, null, HttpStatus.CONFLICT, "Email already exists: a@example.com"));
+        assertSameJson(ApiResponseCollection.<BatchItemResult<UserModel>>builder().data(results).status(HttpStatus.OK).build());
+        assertSameJson(ApiResponse.<String>builder().data("text").status(HttpStatus.OK).build());
+    }
+
+    @Test
+    void customizedObjectMapperFallsBackToJackson() throws Exception {
+        ObjectMapper timestamps = Jackson2ObjectMapperBuilder.json().build();
+        Object body = ApiResponse.<UserModel>builder().data(user(1)).status(HttpStatus.OK).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new UserJsonHttpMessageConverter(timestamps).writeJson(body, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(timestamps.writeValueAsString(body));
+    }
+
+    @Test
+    void namingStrategyAndMixinsFallBackToJackson() throws Exception {
+        Object body = PagedApiResponseCollection.fromPage(
+                new PageImpl<>(users(2), PageRequest.of(0, 2), 10), users(2), null, HttpStatus.OK);
+        ObjectMapper snakeCase = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .build();
+        ObjectMapper mixins = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .mixIn(UserModel.class, IgnoreEmail.class)
+                .build();
+
+        for (ObjectMapper mapper : List.of(snakeCase, mixins)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new UserJsonHttpMessageConverter(mapper).writeJson(body, out);
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(mapper.writeValueAsString(body));
+        }
+    }
+
+    private void assertSameJson(Object body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.writeJson(body, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(body));
+    }
+
+    private static List<UserModel> users(int count) {
+        List<UserModel> users = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            users.add(user(id));
+        }
+        return users;
+    }
+
+    @JsonIgnoreProperties("email")
+    private interface IgnoreEmail {
+    }
+
+    private static UserModel user(long id) {
+        UserModel user = UserModel.builder().id(id).username("user" + id).email("user" + id + "@example.com").build();
+        user.add(Link.of("http://localhost/api/users/" + id).withSelfRel());
+        user.add(Link.of("http://localhost/api/users?page=0&size=10").withRel("users"));
+        return user;
+    }
+}
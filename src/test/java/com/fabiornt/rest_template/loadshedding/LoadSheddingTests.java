@@ -0,0 +1,98 @@
+package com.fabiornt.rest_template.loadshedding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+class LoadSheddingTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    void limiterRejectsBeyondLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 10, Duration.ofSeconds(1), 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void limiterGrowsWhenFastAndBusyAndShrinksWhenSlow() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 2, 5, Duration.ofSeconds(1), 0.5);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // Fast but mostly idle: no evidence of headroom
+        limiter.release(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void slowUnmeasuredPathsHoldASlotWithoutShrinkingTheLimit() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 2, 10, Duration.ofMillis(1), 0.5);
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter, 0, 1, 1, Duration.ofSeconds(1),
+                List.of("/api/users/stream"), List.of("/api/users/batch"), new ObjectMapper(), new SimpleMeterRegistry());
+        FilterChain slow = (request, response) -> {
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users/batch"), new MockHttpServletResponse(), slow);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), new MockHttpServletResponse(), slow);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void tokenBucketAllowsBurstThenRefillsAtRate() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isZero();
+        long wait = bucket.tryConsume(now);
+        assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(bucket.tryConsume(now + wait)).isZero();
+        assertThat(bucket.tryConsume(now + wait)).isPositive();
+
+        // A quiet period refills the bucket, but never beyond the burst
+        long later = now + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume(later)).isZero();
+        }
+        assertThat(bucket.tryConsume(later)).isPositive();
+    }
+}
@@ -0,0 +1,67 @@
+package com.fabiornt.rest_template.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.fabiornt.rest_template.domain.model.UserChange;
+import com.fabiornt.rest_template.repository.UserChangeRepository;
+
+/**
+ * Outbox kept in a list, for the relay and stream tests. Rows are visible once committed, and the
+ * transaction snapshot is whatever the test sets.
+ */
+class InMemoryUserChangeRepository extends UserChangeRepository {
+
+    private final List<UserChange> rows = new ArrayList<>();
+    private Long purgeThrough;
+    TransactionSnapshot snapshot = new TransactionSnapshot(1, 1);
+
+    InMemoryUserChangeRepository() {
+        super(null);
+    }
+
+    void commit(long... seqs) {
+        for (long seq : seqs) {
+            rows.add(new UserChange(seq, seq * 10, UserChange.Operation.CREATED, 0L, Instant.now()));
+        }
+        rows.sort((a, b) -> Long.compare(a.seq(), b.seq()));
+    }
+
+    void purgeThrough(long seq) {
+        purgeThrough = seq;
+    }
+
+    @Override
+    public List<UserChange> findAfter(long afterSeq, long upToSeq, int limit) {
+        return rows.stream().filter(row -> row.seq() > afterSeq && row.seq() <= upToSeq).limit(limit).toList();
+    }
+
+    @Override
+    public Optional<Long> findFirstSeq() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Long> findLastSeqOlderThan(Duration age) {
+        return Optional.empty();
+    }
+
+    @Override
+    public long findLastAssignedSeq() {
+        return 0;
+    }
+
+    @Override
+    public TransactionSnapshot currentSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public Optional<Long> deleteOlderThan(Duration age) {
+        rows.removeIf(row -> purgeThrough != null && row.seq() <= purgeThrough);
+        return Optional.ofNullable(purgeThrough);
+    }
+}
@@ -0,0 +1,76 @@
+package com.fabiornt.rest_template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class PasswordHasherTests {
+
+    private final PasswordHasher hasher = new PasswordHasher("bcrypt", 4, 1000, 2, 16);
+
+    @AfterEach
+    void shutDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesWithAlgorithmPrefix() {
+        String hash = hasher.hash("secret1");
+
+        assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        assertThat(new BCryptPasswordEncoder().matches("secret1", hash.substring("{bcrypt}".length()))).isTrue();
+        assertThat(hasher.isPlainText(hash)).isFalse();
+    }
+
+    @Test
+    void hashAllKeepsOrder() {
+        List<String> hashes = hasher.hashAll(List.of("a-secret", "b-secret", "c-secret"));
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        assertThat(hashes).hasSize(3);
+        assertThat(bcrypt.matches("a-secret", hashes.get(0).substring("{bcrypt}".length()))).isTrue();
+        assertThat(bcrypt.matches("c-secret", hashes.get(2).substring("{bcrypt}".length()))).isTrue();
+    }
+
+    @Test
+    void singleHashIsNotQueuedBehindWholeBatch() throws Exception {
+        PasswordHasher oneThread = new PasswordHasher("bcrypt", 8, 1000, 1, 16);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<String>> batch = caller.submit(() -> oneThread.hashAll(Collections.nCopies(100, "secret1")));
+            Thread.sleep(50);
+
+            oneThread.hash("secret2");
+
+            assertThat(batch).isNotDone();
+            assertThat(batch.get()).hasSize(100);
+        } finally {
+            caller.shutdownNow();
+            oneThread.shutdown();
+        }
+    }
+
+    @Test
+    void hashesOfOtherAlgorithmsAreNotPlainText() {
+        PasswordHasher pbkdf2 = new PasswordHasher("pbkdf2", 4, 1000, 1, 1);
+        try {
+            assertThat(hasher.isPlainText(pbkdf2.hash("secret1"))).isFalse();
+        } finally {
+            pbkdf2.shutdown();
+        }
+    }
+
+    @Test
+    void passwordsWithoutKnownPrefixArePlainText() {
+        assertThat(hasher.isPlainText("secret1")).isTrue();
+        assertThat(hasher.isPlainText("{noop}secret1")).isTrue();
+    }
+}
@@ -0,0 +1,120 @@
+package com.fabiornt.rest_template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.repository.UserChangeRepository;
+import com.fabiornt.rest_template.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+/**
+ * Bulk writes racing a concurrent request for the same email. The mocked repository finds no email taken,
+ * then fails the flush on the unique index whenever it writes {@value #TAKEN}.
+ */
+class UserBatchServiceTests {
+
+    private static final String TAKEN = "taken@example.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordHasher passwordHasher = new PasswordHasher("bcrypt", 4, 1000, 2, 16);
+    private final UserBatchService userBatchService = new UserBatchService(userRepository, mock(UserChangeRepository.class),
+            new UserCache(new ConcurrentMapCacheManager(UserCache.USERS, UserCache.USER_IDS_BY_EMAIL), Duration.ofMinutes(1)),
+            passwordHasher, mock(EntityManager.class), Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(PlatformTransactionManager.class), 100, 10);
+
+    /** Users written in the current transaction */
+    private final List<User> pending = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private String violatedConstraint = "ux_users_email";
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+        when(userRepository.findByEmailIn(any())).thenReturn(List.of());
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            pending.addAll(users);
+            return users;
+        });
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> requested = invocation.getArgument(0);
+            List<User> users = requested.stream().map(id -> user(id, "old" + id + "@example.com")).toList();
+            pending.addAll(users);
+            return users;
+        });
+        doAnswer(invocation -> {
+            boolean violated = pending.stream().anyMatch(user -> TAKEN.equals(user.getEmail()));
+            pending.clear();
+            if (violated) {
+                throw new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+                        "duplicate key", new SQLException("duplicate key", "23505"), violatedConstraint));
+            }
+            return null;
+        }).when(userRepository).flush();
+    }
+
+    @AfterEach
+    void shutDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void createReportsOnlyTheLosingItemAsConflict() {
+        List<BatchItemResult<User>> results = userBatchService.createUsers(List.of(
+                user(null, "alice@example.com"), user(null, TAKEN), user(null, "carol@example.com")));
+
+        assertThat(results).extracting(BatchItemResult::getStatus)
+                .containsExactly(HttpStatus.CREATED, HttpStatus.CONFLICT, HttpStatus.CREATED);
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(results.get(1).getErrors()).containsExactly("Email already exists: " + TAKEN);
+        assertThat(results.get(0).getData().getVersion()).isNull();
+    }
+
+    @Test
+    void updateReportsOnlyTheLosingItemAsConflict() {
+        List<BatchItemResult<User>> results = userBatchService.updateUsers(List.of(
+                user(1L, "alice@example.com"), user(2L, TAKEN), user(3L, "carol@example.com")));
+
+        assertThat(results).extracting(BatchItemResult::getStatus)
+                .containsExactly(HttpStatus.OK, HttpStatus.CONFLICT, HttpStatus.OK);
+        assertThat(results.get(1).getId()).isEqualTo(2L);
+        assertThat(results.get(1).getErrors()).containsExactly("Email already exists: " + TAKEN);
+    }
+
+    @Test
+    void otherViolationsAreNotTurnedIntoConflicts() {
+        violatedConstraint = "users_pkey";
+
+        assertThatThrownBy(() -> userBatchService.createUsers(List.of(user(null, TAKEN))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static User user(Long id, String email) {
+        return new User(id, "user" + email.length(), email, "secret123", null);
+    }
+}
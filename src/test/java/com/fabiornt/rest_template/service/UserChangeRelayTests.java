@@ -0,0 +1,112 @@
+package com.fabiornt.rest_template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fabiornt.rest_template.domain.model.UserChange;
+import com.fabiornt.rest_template.domain.model.UserChangeFeed;
+import com.fabiornt.rest_template.exception.ChangesExpiredException;
+import com.fabiornt.rest_template.repository.UserChangeRepository.TransactionSnapshot;
+
+/**
+ * Relay of the outbox to the change feed, over an in-memory outbox whose transaction snapshot is set by the test.
+ */
+class UserChangeRelayTests {
+
+    private final InMemoryUserChangeRepository outbox = new InMemoryUserChangeRepository();
+    private final UserChangeRelay relay = new UserChangeRelay(outbox, 100, 4, Duration.ofDays(7));
+
+    @Test
+    void relaysCommittedChangesInOrder() {
+        outbox.commit(1, 2, 3);
+        relay.relay();
+
+        UserChangeFeed feed = relay.getChanges(0L, 2);
+        assertThat(feed.changes()).extracting(UserChange::seq).containsExactly(1L, 2L);
+        assertThat(feed.next()).isEqualTo(2);
+        assertThat(relay.getChanges(feed.next(), 10).changes()).extracting(UserChange::seq).containsExactly(3L);
+        assertThat(relay.getChanges(3L, 10)).isEqualTo(new UserChangeFeed(List.of(), 3));
+    }
+
+    @Test
+    void startsAtCurrentPositionWithoutSince() {
+        outbox.commit(1, 2);
+        relay.relay();
+
+        assertThat(relay.getChanges(null, 10)).isEqualTo(new UserChangeFeed(List.of(), 2));
+    }
+
+    @Test
+    void waitsAtGapUntilItsTransactionsHaveEnded() throws Exception {
+        outbox.commit(1, 3);
+        outbox.snapshot = new TransactionSnapshot(100, 105);
+        relay.relay();
+        assertThat(relay.getChanges(0L, 10).changes()).extracting(UserChange::seq).containsExactly(1L);
+
+        // Transaction 104 may still commit seq 2
+        Thread.sleep(1100);
+        outbox.snapshot = new TransactionSnapshot(104, 110);
+        relay.relay();
+        assertThat(relay.getChanges(1L, 10).changes()).isEmpty();
+
+        // It committed: no gap any more
+        outbox.commit(2);
+        relay.relay();
+        assertThat(relay.getChanges(1L, 10).changes()).extracting(UserChange::seq).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void skipsGapLeftByRollback() throws Exception {
+        outbox.commit(1, 3);
+        outbox.snapshot = new TransactionSnapshot(100, 105);
+        relay.relay();
+
+        Thread.sleep(1100);
+        outbox.snapshot = new TransactionSnapshot(105, 105);
+        relay.relay();
+        assertThat(relay.getChanges(1L, 10).changes()).extracting(UserChange::seq).containsExactly(3L);
+    }
+
+    @Test
+    void longPollCompletesWhenChangeIsRelayed() throws Exception {
+        outbox.commit(1);
+        relay.relay();
+
+        CompletableFuture<UserChangeFeed> result = relay.awaitChanges(1L, 10, Duration.ofSeconds(10));
+        assertThat(result).isNotDone();
+
+        outbox.commit(2);
+        relay.relay();
+        assertThat(result.get(1, TimeUnit.SECONDS).changes()).extracting(UserChange::seq).containsExactly(2L);
+    }
+
+    @Test
+    void longPollTimesOutWithEmptyFeed() throws Exception {
+        outbox.commit(1);
+        relay.relay();
+
+        UserChangeFeed feed = relay.awaitChanges(1L, 10, Duration.ofMillis(50)).get(1, TimeUnit.SECONDS);
+        assertThat(feed).isEqualTo(new UserChangeFeed(List.of(), 1));
+    }
+
+    @Test
+    void readsTableBehindBufferAndRejectsPurgedPositions() {
+        outbox.commit(1, 2, 3, 4, 5, 6);
+        relay.relay();
+
+        // The buffer holds 3..6
+        assertThat(relay.getChanges(0L, 3).changes()).extracting(UserChange::seq).containsExactly(1L, 2L, 3L);
+
+        outbox.purgeThrough(2);
+        relay.removeExpiredChanges();
+        assertThatThrownBy(() -> relay.getChanges(1L, 3)).isInstanceOf(ChangesExpiredException.class);
+        assertThat(relay.getChanges(2L, 3).changes()).extracting(UserChange::seq).containsExactly(3L, 4L, 5L);
+    }
+}
@@ -0,0 +1,222 @@
+package com.fabiornt.rest_template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import com.fabiornt.rest_template.controller.UserChangeController;
+
+/**
+ * SSE stream of user changes through {@code UserChangeController}, with mock requests standing in for connections.
+ */
+class UserChangeStreamTests {
+
+    private static final int SUBSCRIBERS = 5000;
+    private static final int SEND_THREADS = 4;
+
+    private final InMemoryUserChangeRepository outbox = new InMemoryUserChangeRepository();
+    private final UserChangeRelay relay = new UserChangeRelay(outbox, 100, 4, Duration.ofDays(7));
+    private final UserChangeStream stream = new UserChangeStream(relay, Duration.ofMinutes(5), Duration.ofMillis(100),
+            SEND_THREADS, 100);
+    private final CountDownLatch stalledWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch clientReads = new CountDownLatch(1);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new UserChangeController(relay, stream, 1000, Duration.ofSeconds(60)))
+            .addFilter(stallingFilter())
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        stream.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientReads.countDown();
+        stream.stop();
+    }
+
+    @Test
+    void fansOutToThousandsOfSubscribersFromOneBuffer(TestReporter reporter) throws Exception {
+        long heapBefore = usedHeapAfterGc();
+        List<MvcResult> subscribers = new ArrayList<>(SUBSCRIBERS);
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            subscribers.add(mockMvc.perform(get("/api/users/stream")).andExpect(request().asyncStarted()).andReturn());
+        }
+        // Depends on the JVM and GC, so reported rather than asserted; includes the mock request and response
+        reporter.publishEntry("heapBytesPerSubscriber",
+                Long.toString((usedHeapAfterGc() - heapBefore) / SUBSCRIBERS));
+
+        assertThat(stream.getSubscriberCount()).isEqualTo(SUBSCRIBERS);
+
+        outbox.commit(1, 2);
+        relay.relay();
+
+        for (MvcResult subscriber : subscribers) {
+            assertThat(awaitContent(subscriber, "id:2\n"))
+                    .contains("event:resync\n")
+                    .contains("id:1\nevent:change\n");
+        }
+        assertThat(Thread.getAllStackTraces().keySet())
+                .filteredOn(thread -> thread.getName().startsWith("user-stream-"))
+                .hasSizeLessThanOrEqualTo(SEND_THREADS);
+    }
+
+    @Test
+    void resumesAfterLastEventId() throws Exception {
+        outbox.commit(1, 2, 3);
+        relay.relay();
+
+        MvcResult subscriber = mockMvc.perform(get("/api/users/stream").header("Last-Event-ID", "1")).andReturn();
+
+        String content = awaitContent(subscriber, "id:3\n");
+        assertThat(content).doesNotContain("resync").doesNotContain("id:1\n").contains("id:2\n");
+    }
+
+    @Test
+    void resyncsWhenPositionIsNoLongerBuffered() throws Exception {
+        // The buffer holds the last 4 changes, 3..6
+        outbox.commit(1, 2, 3, 4, 5, 6);
+        relay.relay();
+
+        MvcResult subscriber = mockMvc.perform(get("/api/users/stream").header("Last-Event-ID", "1")).andReturn();
+
+        assertThat(awaitContent(subscriber, "event:resync\n")).contains("id:6\n").doesNotContain("event:change");
+    }
+
+    @Test
+    void dropsStalledSubscriberWithoutHoldingUpOthers() throws Exception {
+        UserChangeStream stream = new UserChangeStream(relay, Duration.ofMinutes(5), Duration.ofMillis(100), 1, 100);
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new UserChangeController(relay, stream, 1000, Duration.ofSeconds(60)))
+                .addFilter(stallingFilter())
+                .build();
+        try {
+            MvcResult stalled = mockMvc.perform(get("/api/users/stream").header("X-Stall", "true")).andReturn();
+            outbox.commit(1);
+            relay.relay();
+            // The only send thread is now blocked writing to the stalled client
+            assertThat(stalledWriteStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            MvcResult subscriber = mockMvc.perform(get("/api/users/stream")).andReturn();
+            outbox.commit(2);
+            relay.relay();
+            Thread.sleep(200);
+            stream.dropStalledSubscribers();
+
+            assertThat(awaitContent(subscriber, "id:2\n")).contains("event:change\n");
+            assertThat(stream.getSubscriberCount()).isEqualTo(1);
+
+            // The stalled write returns and its stream is closed
+            clientReads.countDown();
+            stalled.getAsyncResult(10_000);
+            assertThat(stalled.getResponse().getContentAsString()).contains("id:1\n").doesNotContain("id:2\n");
+        } finally {
+            stream.stop();
+        }
+    }
+
+    @Test
+    void closesStreamsOnStop() throws Exception {
+        MvcResult subscriber = mockMvc.perform(get("/api/users/stream")).andReturn();
+
+        stream.stop();
+
+        assertThat(stream.getSubscriberCount()).isZero();
+        assertThat(stream.isRunning()).isFalse();
+        assertThat(subscriber.getResponse().getContentAsString()).contains("event:resync\n");
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    /**
+     * Wraps the response of requests with an {@code X-Stall} header, so that writing a change to it blocks
+     * until the client reads
+     */
+    private Filter stallingFilter() {
+        return (request, response, chain) -> {
+            if (((HttpServletRequest) request).getHeader("X-Stall") == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            ServletOutputStream out = response.getOutputStream();
+            ServletOutputStream stalling = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (new String(b, off, len, StandardCharsets.UTF_8).contains("event:change")) {
+                        stalledWriteStarted.countDown();
+                        try {
+                            clientReads.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+            chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return stalling;
+                }
+            });
+        };
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
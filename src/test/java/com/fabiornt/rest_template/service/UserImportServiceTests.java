@@ -0,0 +1,98 @@
+package com.fabiornt.rest_template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.fabiornt.rest_template.domain.entity.User;
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.ImportSummary;
+import com.fabiornt.rest_template.exception.InvalidImportFileException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * CSV import against a mocked batch service that accepts every record.
+ */
+class UserImportServiceTests {
+
+    private final UserBatchService userBatchService = mock(UserBatchService.class);
+    private final UserImportService userImportService = new UserImportService(userBatchService, new ObjectMapper(), 10, 64, 10);
+    private final List<User> imported = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(userBatchService.createUsers(any())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            imported.addAll(users);
+            return IntStream.range(0, users.size())
+                    .mapToObj(i -> BatchItemResult.success(i, (long) i + 1, HttpStatus.CREATED, users.get(i)))
+                    .toList();
+        });
+    }
+
+    @Test
+    void mapsColumnsByHeaderInAnyOrder() throws IOException {
+        ImportSummary summary = importCsv("password,ID,Email,username\r\nsecret1,7,alice@example.com,alice\r\n");
+
+        assertThat(summary.getAccepted()).isEqualTo(1);
+        assertThat(imported).singleElement().satisfies(user -> {
+            assertThat(user.getId()).isNull();
+            assertThat(user.getUsername()).isEqualTo("alice");
+            assertThat(user.getEmail()).isEqualTo("alice@example.com");
+            assertThat(user.getPassword()).isEqualTo("secret1");
+        });
+    }
+
+    @Test
+    void stripsByteOrderMarkFromHeader() throws IOException {
+        ImportSummary summary = importCsv("\uFEFFusername,email,password\nbob,bob@example.com,secret2\n");
+
+        assertThat(summary.getAccepted()).isEqualTo(1);
+        assertThat(imported).extracting(User::getUsername).containsExactly("bob");
+    }
+
+    @Test
+    void rejectsHeaderMissingRequiredColumn() {
+        assertThatThrownBy(() -> importCsv("username,email\nbob,bob@example.com\n"))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessage("CSV header is missing the column: password");
+        verify(userBatchService, never()).createUsers(any());
+    }
+
+    @Test
+    void rejectsOversizedHeader() {
+        assertThatThrownBy(() -> importCsv("username,email,password," + "x".repeat(64) + "\n"))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessage("CSV header exceeds 64 characters");
+    }
+
+    @Test
+    void reportsOversizedRecordByLineNumber() throws IOException {
+        ImportSummary summary = importCsv("username,email,password\n\nbob,bob@example.com," + "x".repeat(64) + "\ncarol,carol@example.com,secret3");
+
+        assertThat(summary.getRecords()).isEqualTo(2);
+        assertThat(summary.getAccepted()).isEqualTo(1);
+        assertThat(summary.getRejections()).singleElement()
+                .satisfies(rejection -> assertThat(rejection.getLine()).isEqualTo(3));
+        assertThat(imported).extracting(User::getUsername).containsExactly("carol");
+    }
+
+    private ImportSummary importCsv(String body) throws IOException {
+        return userImportService.importCsv(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.fabiornt.rest_template.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fabiornt.rest_template.domain.model.BatchItemResult;
+import com.fabiornt.rest_template.domain.model.UserView;
+import com.fabiornt.rest_template.exception.BatchTooLargeException;
+import com.fabiornt.rest_template.repository.UserRepository;
+
+/**
+ * Lookup of many users by id, with a mocked repository behind a real user cache.
+ */
+class UserLookupTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCache userCache = new UserCache(
+            new ConcurrentMapCacheManager(UserCache.USERS, UserCache.USER_IDS_BY_EMAIL), Duration.ofMinutes(1));
+    private final UserService userService = new UserService(userRepository, null, null, userCache, null,
+            mock(PlatformTransactionManager.class), "exact", 3);
+
+    @Test
+    void returnsUsersInRequestOrderWithNotFoundMarkers() {
+        when(userRepository.findViewsByIdIn(any())).thenReturn(List.of(user(3), user(1)));
+
+        List<BatchItemResult<UserView>> results = userService.getUsersByIds(Arrays.asList(1L, 2L, 3L));
+
+        assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BatchItemResult::getStatus)
+                .containsExactly(HttpStatus.OK, HttpStatus.NOT_FOUND, HttpStatus.OK);
+        assertThat(results).extracting(BatchItemResult::getData).containsExactly(user(1), null, user(3));
+        assertThat(results.get(1).getErrors()).containsExactly("User not found with id: '2'");
+    }
+
+    @Test
+    void loadsOnlyCacheMissesWithOneQuery() {
+        userCache.getById(1L, id -> Optional.of(user(1)));
+        List<Collection<Long>> queries = new ArrayList<>();
+        when(userRepository.findViewsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            queries.add(List.copyOf(ids));
+            return ids.stream().map(UserLookupTests::user).toList();
+        });
+
+        List<BatchItemResult<UserView>> results = userService.getUsersByIds(Arrays.asList(2L, 1L, 2L));
+
+        assertThat(queries).containsExactly(List.of(2L));
+        assertThat(results).extracting(BatchItemResult::getData).containsExactly(user(2), user(1), user(2));
+
+        // Now all cached
+        userService.getUsersByIds(List.of(1L, 2L));
+        assertThat(queries).hasSize(1);
+    }
+
+    @Test
+    void doesNotRecacheRecentlyEvictedUsers() {
+        userCache.getById(1L, id -> Optional.of(user(1)));
+        userCache.evict(1L);
+
+        // A lagging replica still returns the old row
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(user(1)));
+        assertThat(userService.getUserById(1L)).contains(user(1));
+        userService.getUserById(1L);
+
+        verify(userRepository, times(2)).findViewById(1L);
+    }
+
+    @Test
+    void reportsNullIdsAsNotFoundWithoutQuerying() {
+        List<BatchItemResult<UserView>> results = userService.getUsersByIds(Arrays.asList((Long) null));
+
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(HttpStatus.NOT_FOUND);
+        verify(userRepository, never()).findViewsByIdIn(any());
+    }
+
+    @Test
+    void rejectsTooManyIds() {
+        assertThatThrownBy(() -> userService.getUsersByIds(List.of(1L, 2L, 3L, 4L)))
+                .isInstanceOf(BatchTooLargeException.class);
+    }
+
+    private static UserView user(long id) {
+        return new UserView(id, "user" + id, "user" + id + "@example.com", 0L);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fabiornt.rest_template.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Line splitting and the length limit of {@link BoundedLineReader}, with a limit of 5 characters.
+ */
+class BoundedLineReaderTests {
+
+    private static final int LIMIT = 5;
+
+    @Test
+    void splitsOnNewlineAndCrLf() throws IOException {
+        assertThat(readAll("ab\ncd\r\n\nef")).containsExactly("ab", "cd", "", "ef");
+    }
+
+    @Test
+    void returnsFinalLineWithoutNewline() throws IOException {
+        BoundedLineReader reader = reader("ab\ncde");
+
+        assertThat(reader.readLine()).isEqualTo("ab");
+        assertThat(reader.readLine()).isEqualTo("cde");
+        assertThat(reader.getLineNumber()).isEqualTo(2);
+        assertThat(reader.readLine()).isNull();
+    }
+
+    @Test
+    void returnsNullForEmptyStreamAndAfterTrailingNewline() throws IOException {
+        assertThat(readAll("")).isEmpty();
+        assertThat(readAll("ab\n")).containsExactly("ab");
+    }
+
+    @Test
+    void acceptsLineOfExactlyTheLimit() throws IOException {
+        assertThat(readAll("abcde\nabcde")).containsExactly("abcde", "abcde");
+    }
+
+    @Test
+    void acceptsCrLfRightAfterTheLimit() throws IOException {
+        BoundedLineReader reader = reader("abcde\r\nf");
+
+        assertThat(reader.readLine()).isEqualTo("abcde");
+        assertThat(reader.isLastLineTooLong()).isFalse();
+        assertThat(reader.readLine()).isEqualTo("f");
+    }
+
+    @Test
+    void rejectsLineOneCharacterOverTheLimit() throws IOException {
+        BoundedLineReader reader = reader("abcdef\nab\nabcdef");
+
+        assertThat(reader.readLine()).isEmpty();
+        assertThat(reader.isLastLineTooLong()).isTrue();
+        assertThat(reader.readLine()).isEqualTo("ab");
+        assertThat(reader.isLastLineTooLong()).isFalse();
+        // Also without a final newline
+        assertThat(reader.readLine()).isEmpty();
+        assertThat(reader.isLastLineTooLong()).isTrue();
+        assertThat(reader.getLineNumber()).isEqualTo(3);
+        assertThat(reader.readLine()).isNull();
+    }
+
+    @Test
+    void skipsOversizedLineSpanningManyReads() throws IOException {
+        String longLine = "x".repeat(20_000);
+        BoundedLineReader reader = new BoundedLineReader(new OneCharReader(longLine + "\r\nab\n"), LIMIT);
+
+        assertThat(reader.readLine()).isEmpty();
+        assertThat(reader.isLastLineTooLong()).isTrue();
+        assertThat(reader.readLine()).isEqualTo("ab");
+        assertThat(reader.getLineNumber()).isEqualTo(2);
+        assertThat(reader.readLine()).isNull();
+    }
+
+    @Test
+    void joinsLineSplitAcrossReads() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new OneCharReader("abcde\r\nfg"), LIMIT);
+
+        assertThat(reader.readLine()).isEqualTo("abcde");
+        assertThat(reader.readLine()).isEqualTo("fg");
+        assertThat(reader.readLine()).isNull();
+    }
+
+    private static BoundedLineReader reader(String content) {
+        return new BoundedLineReader(new StringReader(content), LIMIT);
+    }
+
+    private static List<String> readAll(String content) throws IOException {
+        BoundedLineReader reader = reader(content);
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * Returns one character per read, so every line crosses buffer refills.
+     */
+    private static class OneCharReader extends Reader {
+
+        private final StringReader reader;
+
+        OneCharReader(String content) {
+            this.reader = new StringReader(content);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return reader.read(buffer, offset, Math.min(length, 1));
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+        }
+    }
+}